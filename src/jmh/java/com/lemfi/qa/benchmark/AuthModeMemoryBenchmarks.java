@@ -0,0 +1,119 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.AuthTokenSigner;
+import com.lemfi.qa.UserAuthenticationToken;
+import org.apache.catalina.Session;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.util.StandardSessionIdGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Heap each {@code auth.mode} keeps per signed-in client. Session mode signs 100k clients in on
+ * Tomcat's own {@link StandardManager}, storing the {@code SPRING_SECURITY_CONTEXT} attribute
+ * exactly as {@link HttpSessionSecurityContextRepository} does, and keeps them live; token mode
+ * verifies as many tokens and keeps nothing. {@code retainedBytesPerClient} is the used heap after
+ * a full GC with the clients signed in, minus the used heap before, divided by the clients; it
+ * should stay close to 0 in token mode. The benchmarks themselves time one more sign-in or verify
+ * on top of that state.
+ */
+@State(Scope.Benchmark)
+public class AuthModeMemoryBenchmarks {
+
+    @Param("100000")
+    private int clients;
+
+    private AuthTokenSigner signer;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        signer = new AuthTokenSigner("benchmark-secret", Duration.ofHours(1));
+        token = signer.issue(42L);
+    }
+
+    /**
+     * The extra session is dropped again right away, so the manager keeps {@code clients} sessions.
+     */
+    @Benchmark
+    public Session signInWithSession(LiveSessions sessions) {
+        Session session = sessions.signIn(clients);
+        sessions.manager.remove(session);
+        return session;
+    }
+
+    @Benchmark
+    public Optional<Long> verifyToken(VerifiedTokens tokens) {
+        return signer.verify(token);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LiveSessions {
+
+        private StandardManager manager;
+        private double retainedBytesPerClient;
+
+        @Setup
+        public void signInClients(AuthModeMemoryBenchmarks benchmark) {
+            manager = new StandardManager();
+            manager.setContext(new StandardContext());
+            manager.setSessionIdGenerator(new StandardSessionIdGenerator());
+
+            long before = usedHeapAfterGc();
+            for (int userId = 0; userId < benchmark.clients; userId++) {
+                signIn(userId);
+            }
+            retainedBytesPerClient = (double) (usedHeapAfterGc() - before) / benchmark.clients;
+        }
+
+        public double retainedBytesPerClient() {
+            return retainedBytesPerClient;
+        }
+
+        private Session signIn(long userId) {
+            Session session = manager.createSession(null);
+            session.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                    new SecurityContextImpl(new UserAuthenticationToken(userId)));
+            return session;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class VerifiedTokens {
+
+        private double retainedBytesPerClient;
+
+        @Setup
+        public void verify(AuthModeMemoryBenchmarks benchmark) {
+            long before = usedHeapAfterGc();
+            for (long userId = 0; userId < benchmark.clients; userId++) {
+                benchmark.signer.verify(benchmark.signer.issue(userId));
+            }
+            retainedBytesPerClient = (double) (usedHeapAfterGc() - before) / benchmark.clients;
+        }
+
+        public double retainedBytesPerClient() {
+            return retainedBytesPerClient;
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,41 @@
+package com.lemfi.qa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+/**
+ * Accumulating credits into a balance: {@code BigDecimal.add}, as the single {@code users.balance}
+ * did, against {@code long} minor units as {@code user_balances.amount_minor} does. Scores are per
+ * credit.
+ */
+@State(Scope.Benchmark)
+public class BalanceArithmeticBenchmarks {
+
+    private static final int CREDITS = 1_000;
+    private static final BigDecimal[] AMOUNTS = {new BigDecimal("1.25"), new BigDecimal("0.10"), new BigDecimal("99.99")};
+    private static final long[] MINOR_AMOUNTS = {125, 10, 9_999};
+
+    @Benchmark
+    @OperationsPerInvocation(CREDITS)
+    public BigDecimal bigDecimalCredits() {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < CREDITS; i++) {
+            balance = balance.add(AMOUNTS[i % AMOUNTS.length]);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CREDITS)
+    public long minorUnitCredits() {
+        long balance = 0;
+        for (int i = 0; i < CREDITS; i++) {
+            balance = Math.addExact(balance, MINOR_AMOUNTS[i % MINOR_AMOUNTS.length]);
+        }
+        return balance;
+    }
+}
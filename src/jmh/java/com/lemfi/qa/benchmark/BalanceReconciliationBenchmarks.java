@@ -0,0 +1,87 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.domain.model.ReconciliationReport;
+import com.lemfi.qa.repository.SequenceIdAllocator;
+import com.lemfi.qa.service.BalanceReconciliation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.USERS_SEQUENCE;
+
+/**
+ * {@link BalanceReconciliation} in report mode over a million payments of ten thousand users,
+ * seeded with plain JDBC, with a few balances tampered with. Scores are per scanned payment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BalanceReconciliationBenchmarks {
+
+    private static final int USERS = 10_000;
+    private static final int PAYMENTS_PER_USER = 100;
+    private static final int DRIFTED_USERS = 50;
+    private static final int BATCH = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private BalanceReconciliation balanceReconciliation;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication();
+        balanceReconciliation = context.getBean(BalanceReconciliation.class);
+        var sequenceIdAllocator = context.getBean(SequenceIdAllocator.class);
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        long[] userIds = sequenceIdAllocator.allocate(USERS_SEQUENCE, USERS);
+        List<Object[]> users = new ArrayList<>(USERS);
+        List<Object[]> balances = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{userIds[i], "reconciliation-benchmark-" + userIds[i] + "@lemfi.test", "secret"});
+            long balance = PAYMENTS_PER_USER * 100L + (i < DRIFTED_USERS ? 1 : 0);
+            balances.add(new Object[]{userIds[i], "EUR", balance});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_balances (user_id, currency, amount_minor) VALUES (?, ?, ?)", balances);
+
+        long[] paymentIds = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, USERS * PAYMENTS_PER_USER);
+        List<Object[]> payments = new ArrayList<>(BATCH);
+        for (int i = 0; i < paymentIds.length; i++) {
+            payments.add(new Object[]{paymentIds[i], BigDecimal.ONE, userIds[i / PAYMENTS_PER_USER]});
+            if (payments.size() == BATCH) {
+                jdbcTemplate.batchUpdate("INSERT INTO payments (id, type, amount, currency, user_id) VALUES (?, 0, ?, 'EUR', ?)",
+                        payments);
+                payments.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS * PAYMENTS_PER_USER)
+    public ReconciliationReport reconcile() {
+        return balanceReconciliation.reconcile(false);
+    }
+}
@@ -0,0 +1,65 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.TestFixtures;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.dto.UpdatePersonalDataRequestDTO;
+import com.lemfi.qa.domain.entity.User;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Request and entity instances shaped like the ones the API handles, and the application itself
+ * for benchmarks that go through the database.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static TransactionRequestDTO transactionRequest() {
+        return TestFixtures.transactionRequest("125.50", "EUR", LocalDate.of(2024, 3, 15));
+    }
+
+    /**
+     * The same request as it arrives over HTTP, with the body captured by {@code RawRequestBodyCapture}.
+     */
+    static TransactionRequestDTO capturedTransactionRequest() {
+        var request = transactionRequest();
+        request.setRawBody(JsonConverter.toJsonString(request).getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    static UpdatePersonalDataRequestDTO personalDataRequest() {
+        var request = new UpdatePersonalDataRequestDTO();
+        request.setFirstName("Test");
+        request.setSurname("Investor");
+        request.setPersonalId(123456789L);
+        return request;
+    }
+
+    static User user() {
+        var user = new User();
+        user.setId(42L);
+        user.setEmail("investor@lemfi.test");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setSurname("Investor");
+        user.setPersonalId(123456789L);
+        return user;
+    }
+
+    /**
+     * {@link HomeworkApplication} on a random port with its own in-memory H2. Close it in {@code @TearDown}.
+     */
+    static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(HomeworkApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:lemfi-benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+}
@@ -0,0 +1,64 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.validation.BloomFilter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The registered-email filter loaded with 10M users, the size an onboarding campaign is planned
+ * for, checked with emails nobody registered. Every false positive costs one
+ * {@code existsByEmail} query; {@code falsePositives} divided by {@code probes} is the rate.
+ */
+@State(Scope.Benchmark)
+public class EmailFilterBenchmarks {
+
+    private static final int PROBES = 1 << 20;
+
+    @Param("10000000")
+    private int users;
+
+    private BloomFilter filter;
+    private String[] newEmails;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = new BloomFilter(users, 0.01);
+        for (int i = 0; i < users; i++) {
+            filter.put("user" + i + "@lemfi.test");
+        }
+        newEmails = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            newEmails[i] = "new" + i + "@lemfi.test";
+        }
+    }
+
+    @Benchmark
+    public boolean checkNewEmail(Checks checks) {
+        boolean mightContain = filter.mightContain(newEmails[next++ & (PROBES - 1)]);
+        checks.probes++;
+        if (mightContain) {
+            checks.falsePositives++;
+        }
+        return mightContain;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Checks {
+
+        public long probes;
+        public long falsePositives;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            probes = 0;
+            falsePositives = 0;
+        }
+    }
+}
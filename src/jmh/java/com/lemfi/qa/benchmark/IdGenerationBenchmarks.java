@@ -0,0 +1,115 @@
+package com.lemfi.qa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Insert throughput of the two id strategies on in-memory H2, replaying the JDBC calls Hibernate
+ * issues for each: identity columns force one executed INSERT per row (the id is read back from
+ * the statement), pooled sequences allow one {@code nextval} per block and batched INSERTs.
+ * Scores are per inserted row.
+ */
+@State(Scope.Benchmark)
+public class IdGenerationBenchmarks {
+
+    private static final int ROWS = 1_000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String RAW_RESPONSE = "{\"accountNumber\":\"123456789012\",\"amount\":{\"currency\":\"EUR\",\"amount\":1.25}}";
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id_benchmark_" + System.nanoTime(), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE payments_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "type INT, amount DECIMAL(19, 2), user_id BIGINT, raw_response VARCHAR(255))");
+            statement.execute("CREATE TABLE payments_sequence (id BIGINT PRIMARY KEY, "
+                    + "type INT, amount DECIMAL(19, 2), user_id BIGINT, raw_response VARCHAR(255))");
+            statement.execute("CREATE SEQUENCE payments_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.commit();
+    }
+
+    /**
+     * Keeps the tables at one invocation's rows, so later invocations don't insert into a bigger index.
+     */
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE payments_identity");
+            statement.execute("TRUNCATE TABLE payments_sequence");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertWithIdentity() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO payments_identity (type, amount, user_id, raw_response) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertWithPooledSequence() throws SQLException {
+        try (PreparedStatement nextValue = connection.prepareStatement("SELECT NEXT VALUE FOR payments_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO payments_sequence (id, type, amount, user_id, raw_response) VALUES (?, ?, ?, ?, ?)")) {
+            long id = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (i % ALLOCATION_SIZE == 0) {
+                    try (ResultSet low = nextValue.executeQuery()) {
+                        low.next();
+                        id = low.getLong(1);
+                    }
+                }
+                insert.setLong(1, id++);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void bind(PreparedStatement insert, int firstIndex, int row) throws SQLException {
+        insert.setInt(firstIndex, 0);
+        insert.setBigDecimal(firstIndex + 1, BigDecimal.valueOf(row, 2));
+        insert.setLong(firstIndex + 2, row % 100);
+        insert.setString(firstIndex + 3, RAW_RESPONSE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.lemfi.qa.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.dto.UpdatePersonalDataRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+import static com.lemfi.qa.domain.model.TransactionType.FUNDING;
+
+/**
+ * {@link JsonConverter} on the bodies the API reads and writes most.
+ */
+@State(Scope.Benchmark)
+public class JsonConverterBenchmarks {
+
+    private TransactionRequestDTO request;
+    private String requestJson;
+    private UpdatePersonalDataRequestDTO personalDataRequest;
+    private PaymentDTO payment;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkFixtures.transactionRequest();
+        requestJson = JsonConverter.toJsonString(request);
+        personalDataRequest = BenchmarkFixtures.personalDataRequest();
+        payment = new PaymentDTO(1_000L, FUNDING, new BigDecimal("125.50"), "EUR");
+    }
+
+    @Benchmark
+    public String transactionRequestToJson() {
+        return JsonConverter.toJsonString(request);
+    }
+
+    @Benchmark
+    public TransactionRequestDTO transactionRequestFromJson() throws JsonProcessingException {
+        return JsonConverter.mapper.readValue(requestJson, TransactionRequestDTO.class);
+    }
+
+    @Benchmark
+    public String personalDataRequestToJson() {
+        return JsonConverter.toJsonString(personalDataRequest);
+    }
+
+    @Benchmark
+    public String paymentToJson() {
+        return JsonConverter.toJsonString(payment);
+    }
+}
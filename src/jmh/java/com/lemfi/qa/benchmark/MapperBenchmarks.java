@@ -0,0 +1,49 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.dto.UserDTO;
+import com.lemfi.qa.domain.entity.Payment;
+import com.lemfi.qa.domain.entity.User;
+import com.lemfi.qa.mapper.PaymentEntityMapper;
+import com.lemfi.qa.mapper.UserDTOMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.lemfi.qa.domain.model.TransactionType.FUNDING;
+
+/**
+ * Mappers run once per add-funds and once per listed user. Entity mapping is measured
+ * both for a DTO built in code, which is serialized again for the stored request JSON, and for
+ * one deserialized from a captured body.
+ */
+@State(Scope.Benchmark)
+public class MapperBenchmarks {
+
+    private TransactionRequestDTO request;
+    private TransactionRequestDTO capturedRequest;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkFixtures.transactionRequest();
+        capturedRequest = BenchmarkFixtures.capturedTransactionRequest();
+        user = BenchmarkFixtures.user();
+    }
+
+    @Benchmark
+    public Payment transactionReqToPaymentEntity() {
+        return PaymentEntityMapper.transactionReqToPaymentEntity(request, FUNDING, user);
+    }
+
+    @Benchmark
+    public Payment transactionReqToPaymentEntityFromCapturedBody() {
+        return PaymentEntityMapper.transactionReqToPaymentEntity(capturedRequest, FUNDING, user);
+    }
+
+    @Benchmark
+    public UserDTO toUserDTO() {
+        return UserDTOMapper.toUserDTO(user);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.TestFixtures;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.Payment;
+import com.lemfi.qa.domain.model.PaymentFilter;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.PaymentSearchRepository;
+import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One page read of 1000 payments: the old path, managed {@link Payment} entities with the eager user
+ * mapped to {@link PaymentDTO} in code, as the baseline for the projections {@code GET /api/payments}
+ * reads through {@link PaymentRepository#findPageByUserId} and {@link PaymentSearchRepository#findPageByBookingDate}.
+ */
+@State(Scope.Benchmark)
+public class PaymentReadBenchmarks {
+
+    private static final int PAYMENTS = 5_000;
+    private static final int PAGE = 1_000;
+    private static final PaymentFilter BOOKED_THIS_CENTURY = new PaymentFilter(LocalDate.of(2000, 1, 1), null, null);
+
+    private ConfigurableApplicationContext context;
+    private PaymentRepository paymentRepository;
+    private PaymentSearchRepository paymentSearchRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication();
+        paymentRepository = context.getBean(PaymentRepository.class);
+        paymentSearchRepository = context.getBean(PaymentSearchRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        userId = TestFixtures.saveUser(context.getBean(UserRepository.class), "read-benchmark");
+
+        List<TransactionRequestDTO> requests = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            requests.add(BenchmarkFixtures.transactionRequest());
+        }
+        context.getBean(AuthenticationHandler.class).authenticate(userId);
+        try {
+            context.getBean(PaymentService.class).handleAddFundsBatch(requests);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PaymentDTO> entityRead() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("select p from Payment p where p.user.id = :userId order by p.id", Payment.class)
+                .setParameter("userId", userId)
+                .setMaxResults(PAGE)
+                .getResultList()
+                .stream()
+                .map(PaymentReadBenchmarks::toPaymentDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<PaymentDTO> projectionRead() {
+        return readOnly.execute(status -> paymentRepository.findPageByUserId(userId, 0L, PageRequest.of(0, PAGE)));
+    }
+
+    @Benchmark
+    public List<PaymentDTO> bookingDateRead() {
+        return readOnly.execute(status -> paymentSearchRepository.findPageByBookingDate(userId, null, BOOKED_THIS_CENTURY,
+                false, PAGE));
+    }
+
+    /** The mapper the entity read used to go through. */
+    private static PaymentDTO toPaymentDTO(Payment payment) {
+        var paymentDTO = new PaymentDTO();
+        paymentDTO.setId(payment.getId());
+        paymentDTO.setAmount(payment.getAmount());
+        paymentDTO.setCurrency(payment.getCurrency());
+        paymentDTO.setTransactionType(payment.getType());
+        paymentDTO.setRawResponse(payment.getRawResponse());
+        return paymentDTO;
+    }
+}
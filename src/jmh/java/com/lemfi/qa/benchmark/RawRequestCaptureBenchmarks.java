@@ -0,0 +1,45 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.lemfi.qa.JsonConverter.toJsonString;
+import static com.lemfi.qa.domain.entity.DeflatedStringConverter.deflate;
+
+/**
+ * Going from the add-funds request stream to the stored raw response: before, Jackson read the
+ * stream and the DTO was serialized again into a String and deflated; after, the body is read into
+ * one array that Jackson parses and that is deflated as is. Compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+public class RawRequestCaptureBenchmarks {
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = toJsonString(BenchmarkFixtures.transactionRequest()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] reserializedRequest() throws IOException {
+        TransactionRequestDTO request = JsonConverter.mapper.readValue(new ByteArrayInputStream(body), TransactionRequestDTO.class);
+        return deflate(toJsonString(request));
+    }
+
+    @Benchmark
+    public byte[] capturedRequest() throws IOException {
+        byte[] rawBody = new ByteArrayInputStream(body).readAllBytes();
+        TransactionRequestDTO request = JsonConverter.mapper.readValue(new ByteArrayInputStream(rawBody), TransactionRequestDTO.class);
+        request.setRawBody(rawBody);
+        return deflate(request.getRawBody());
+    }
+}
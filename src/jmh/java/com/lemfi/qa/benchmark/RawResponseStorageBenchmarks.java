@@ -0,0 +1,114 @@
+package com.lemfi.qa.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.TestFixtures;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
+import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serving a {@code /api/payments} page of 1000 with and without {@code include=rawResponse}. The
+ * raw_response column size, plain against deflated, is logged once at setup.
+ */
+@State(Scope.Benchmark)
+public class RawResponseStorageBenchmarks {
+
+    private static final Logger log = LoggerFactory.getLogger(RawResponseStorageBenchmarks.class);
+    private static final int PAYMENTS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication();
+        paymentService = context.getBean(PaymentService.class);
+
+        userId = TestFixtures.saveUser(context.getBean(UserRepository.class), "raw-response-benchmark");
+
+        List<TransactionRequestDTO> requests = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            requests.add(transactionRequest(i));
+        }
+        context.getBean(AuthenticationHandler.class).authenticate(userId);
+        try {
+            paymentService.handleAddFundsBatch(requests);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        List<byte[]> stored = context.getBean(JdbcTemplate.class).query(
+                "SELECT raw_response_deflated FROM payments WHERE user_id = ?", (rs, rowNum) -> rs.getBytes(1), userId);
+        long deflatedBytes = stored.stream().mapToLong(it -> it.length).sum();
+        long plainBytes = stored.stream()
+                .mapToLong(it -> DeflatedStringConverter.inflate(it).getBytes(StandardCharsets.UTF_8).length)
+                .sum();
+        log.info("raw_response column: {} bytes plain, {} bytes deflated ({}%)",
+                plainBytes, deflatedBytes, deflatedBytes * 100 / plainBytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] pageWithRawResponse(SignedIn signedIn) throws JsonProcessingException {
+        return JsonConverter.mapper.writeValueAsBytes(paymentService.getPayments(null, PAYMENTS, true).getItems());
+    }
+
+    @Benchmark
+    public byte[] pageWithoutRawResponse(SignedIn signedIn) throws JsonProcessingException {
+        return JsonConverter.mapper.writeValueAsBytes(paymentService.getPayments(null, PAYMENTS, false).getItems());
+    }
+
+    /**
+     * The benchmark user, signed in on each measuring thread.
+     */
+    @State(Scope.Thread)
+    public static class SignedIn {
+
+        @Setup
+        public void signIn(RawResponseStorageBenchmarks benchmark) {
+            benchmark.context.getBean(AuthenticationHandler.class).authenticate(benchmark.userId);
+        }
+
+        @TearDown
+        public void signOut() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Every row differs, as real requests do, so the deflated size isn't flattered by repetition.
+     */
+    private static TransactionRequestDTO transactionRequest(int row) {
+        var request = TestFixtures.transactionRequest(BigDecimal.valueOf(100 + row, 2), "EUR",
+                LocalDate.now().minusDays(row % 365));
+        request.setAccountNumber(String.format("%012d", 100_000_000L + row));
+        request.setAccountHolderFullName("Test Investor " + row);
+        request.setAccountHolderPersonalId(String.format("%09d", row));
+        request.setInvestorId(Long.toString(1_000_000_000L + row));
+        return request;
+    }
+}
@@ -0,0 +1,40 @@
+package com.lemfi.qa.benchmark;
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.validation.TransactionRequestValidator;
+import com.lemfi.qa.validation.ValidationStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link TransactionRequestValidator} on a valid request, which runs every rule, and on one
+ * rejected by the amount rules, which builds the failure message.
+ */
+@State(Scope.Benchmark)
+public class ValidationBenchmarks {
+
+    private final TransactionRequestValidator validator = new TransactionRequestValidator();
+    private TransactionRequestDTO validRequest;
+    private TransactionRequestDTO invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validRequest = BenchmarkFixtures.transactionRequest();
+        invalidRequest = BenchmarkFixtures.transactionRequest();
+        invalidRequest.getAmount().setAmount(new BigDecimal("12.345"));
+    }
+
+    @Benchmark
+    public ValidationStatus validTransactionRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public ValidationStatus invalidTransactionRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
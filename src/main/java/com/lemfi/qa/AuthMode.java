@@ -0,0 +1,11 @@
+package com.lemfi.qa;
+
+/**
+ * How {@code /api/**} callers stay signed in after sign-up, selected by {@code auth.mode}.
+ */
+public enum AuthMode {
+    /** Server-side HTTP session holding the security context (default). */
+    SESSION,
+    /** Stateless signed bearer token, see {@link AuthTokenSigner}. */
+    TOKEN
+}
@@ -0,0 +1,117 @@
+package com.lemfi.qa;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and checks the bearer tokens used when {@code auth.mode=token}.
+ * <p>
+ * A token is {@code base64url(userId | expiresAt) "." base64url(HMAC-SHA256)}, so verifying it is
+ * one MAC over 16 bytes and the server keeps nothing per client. Nodes that share
+ * {@code auth.token.secret} accept each other's tokens; without it a random key is generated and
+ * tokens die with the process.
+ */
+@Slf4j
+@Component
+public class AuthTokenSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 2 * Long.BYTES;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public AuthTokenSigner(@Value("${auth.token.secret:}") String secret,
+                           @Value("${auth.token.ttl:24h}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    AuthTokenSigner(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secretBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Long userId) {
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(userId)
+                .putLong(clock.instant().plus(ttl).getEpochSecond())
+                .array();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Returns the user id of a well-formed, correctly signed and unexpired token.
+     */
+    public Optional<Long> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long userId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return Optional.empty();
+        }
+        return Optional.of(userId);
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        log.warn("auth.token.secret is not set, signing tokens with a random key; they will not survive a restart");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+}
@@ -1,11 +1,21 @@
 package com.lemfi.qa;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
+@RequiredArgsConstructor
 public class AuthenticationHandler {
 
+    private final AuthTokenSigner authTokenSigner;
+
+    @Value("${auth.mode:session}")
+    private AuthMode authMode;
+
     public void authenticate(Long userId) {
         SecurityContextHolder.getContext().setAuthentication(new UserAuthenticationToken(userId));
     }
@@ -14,4 +24,11 @@ public class AuthenticationHandler {
         return (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
     }
 
-}
\ No newline at end of file
+    /**
+     * Bearer token for the user in {@link AuthMode#TOKEN}; empty in session mode.
+     */
+    public Optional<String> issueToken(Long userId) {
+        return authMode == AuthMode.TOKEN ? Optional.of(authTokenSigner.issue(userId)) : Optional.empty();
+    }
+
+}
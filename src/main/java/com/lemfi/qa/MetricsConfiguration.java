@@ -0,0 +1,61 @@
+package com.lemfi.qa;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Metrics on top of what Spring Boot records by default ({@code http.server.requests},
+ * {@code spring.data.repository.invocations}, {@code tomcat.sessions.*}): the controller method
+ * handling each request, JDBC repositories annotated with {@code @Timed} and JSON serialization
+ * of response bodies. Percentiles are set in {@code application.properties}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    private static final Tag NO_HANDLER = Tag.of("handler", "none");
+
+    /**
+     * Tags {@code http.server.requests} with the controller method, e.g. {@code PaymentController.getPayments}.
+     */
+    @Bean
+    public WebMvcTagsContributor handlerTagContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                if (!(handler instanceof HandlerMethod)) {
+                    return Tags.of(NO_HANDLER);
+                }
+                var method = (HandlerMethod) handler;
+                return Tags.of("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJsonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+}
@@ -1,15 +1,24 @@
 package com.lemfi.qa;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class RestApiSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private final AuthTokenSigner authTokenSigner;
+
+    @Value("${auth.mode:session}")
+    private AuthMode authMode;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
@@ -24,10 +33,17 @@ public class RestApiSecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .and()
                 .httpBasic()
                 .and()
-                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.ALWAYS)
-                .and()
                 .csrf().disable();
 
+        if (authMode == AuthMode.TOKEN) {
+            http
+                    .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    .and()
+                    .addFilterBefore(new TokenAuthenticationFilter(authTokenSigner), BasicAuthenticationFilter.class);
+        } else {
+            http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.ALWAYS);
+        }
+
         http.headers().frameOptions().disable();
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.lemfi.qa;
+
+import com.lemfi.qa.controller.SqlStatementBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires {@link SqlStatementBudget}: the data source is wrapped so statements are counted, and the
+ * budget runs around every controller call.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class SqlStatementBudgetConfiguration implements WebMvcConfigurer {
+
+    private final SqlStatementBudget sqlStatementBudget;
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource((DataSource) bean)
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementBudget);
+    }
+}
@@ -0,0 +1,39 @@
+package com.lemfi.qa;
+
+/**
+ * Counts JDBC statements prepared on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements are counted by {@link StatementCountingDataSource}; a JDBC batch
+ * counts once, like one round trip. Threads that never called {@link #start()} are not counted.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return statements counted since {@link #start()}, -1 if counting was not started
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
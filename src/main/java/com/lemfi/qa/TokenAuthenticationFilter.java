@@ -0,0 +1,38 @@
+package com.lemfi.qa;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} requests from the token alone, without
+ * looking up a session. Requests without a valid token pass through unauthenticated and are
+ * rejected by the {@code /api/**} rule.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AuthTokenSigner authTokenSigner;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            authTokenSigner.verify(header.substring(BEARER.length()).trim())
+                    .ifPresent(userId -> SecurityContextHolder.getContext()
+                            .setAuthentication(new UserAuthenticationToken(userId)));
+        }
+        chain.doFilter(request, response);
+    }
+
+}
@@ -38,8 +38,9 @@ public class AuthenticationController {
         Optional<UserDTO> registeredUser = registrationService.registerUser(req);
         if (registeredUser.isPresent()) {
             authenticationHandler.authenticate(registeredUser.get().getId());
+            String token = authenticationHandler.issueToken(registeredUser.get().getId()).orElse(null);
             return ResponseEntity.status(200).body(new RegisterUserResponse(registeredUser.get(),
-                    new Message("SUCCESS", "User registered")));
+                    new Message("SUCCESS", "User registered"), token));
         }
 
         return ResponseEntity.status(400).body(new Message("FAIL", "Something went wrong"));
@@ -1,21 +1,26 @@
 package com.lemfi.qa.controller;
 
 
-import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.AuthenticationHandler;
 import com.lemfi.qa.domain.dto.TransactionRequestDTO;
-import com.lemfi.qa.mapper.PaymentDTOMapper;
-import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.domain.model.Message;
+import com.lemfi.qa.domain.model.PaymentFilter;
+import com.lemfi.qa.domain.model.PaymentPage;
 import com.lemfi.qa.service.PaymentService;
-import com.lemfi.qa.service.UserService;
+import com.lemfi.qa.service.PaymentSummaryService;
+import com.lemfi.qa.validation.TransactionRequestValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.util.Collections;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.springframework.http.ResponseEntity.ok;
 import static org.springframework.http.ResponseEntity.status;
@@ -26,25 +31,110 @@ import static org.springframework.http.ResponseEntity.status;
 @RequestMapping(path = "/api")
 public class PaymentController {
 
-    private final PaymentRepository paymentRepository;
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String INCLUDE_RAW_RESPONSE = "rawResponse";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PaymentService paymentService;
-    private final UserService userService;
+    private final PaymentSummaryService paymentSummaryService;
+    private final AuthenticationHandler authenticationHandler;
+    private final TransactionRequestValidator transactionRequestValidator;
+
+    @Value("${payments.batch.max-items:10000}")
+    private int batchMaxItems;
+
+    @Value("${payments.page.default-limit:100}")
+    private int paymentsDefaultLimit;
+
+    @Value("${payments.page.max-limit:1000}")
+    private int paymentsMaxLimit;
 
     @PostMapping("/add-funds")
-    public ResponseEntity<?> addFunds(@RequestBody @Valid TransactionRequestDTO transactionRequestDTO) {
-        return paymentService.handleAddFundsPayment(transactionRequestDTO)
+    public ResponseEntity<?> addFunds(@RequestBody @Valid TransactionRequestDTO transactionRequestDTO,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH)) {
+            return status(400).body("Idempotency-Key must be 1 to " + IDEMPOTENCY_KEY_MAX_LENGTH + " characters");
+        }
+        var validationStatus = transactionRequestValidator.validate(transactionRequestDTO);
+        if (!validationStatus.isValid()) {
+            return status(400).body(validationStatus.getMessage());
+        }
+        return paymentService.handleAddFundsPayment(transactionRequestDTO, idempotencyKey)
                 .map(paymentId -> ok().body("Payment imported, id: " + paymentId))
                 .orElse(status(400).body("Something went wrong"));
     }
 
+    @PostMapping("/add-funds/batch")
+    public ResponseEntity<?> addFundsBatch(@RequestBody List<TransactionRequestDTO> transactionRequestDTOs) {
+        if (transactionRequestDTOs == null || transactionRequestDTOs.isEmpty()) {
+            return status(400).body(new Message("FAIL", "At least one payment is required"));
+        }
+        if (transactionRequestDTOs.size() > batchMaxItems) {
+            return status(400).body(new Message("FAIL", "At most " + batchMaxItems + " payments are allowed per batch"));
+        }
+        return ok().body(paymentService.handleAddFundsBatch(transactionRequestDTOs));
+    }
+
+    /**
+     * One keyset page of the current user's payments; the next page's cursor is sent in {@value #NEXT_CURSOR_HEADER}.
+     */
     @GetMapping("/payments")
-    public List<PaymentDTO> getPayments() {
-        var user = userService.getCurrentUser();
-        return user.map(value -> paymentRepository.findByUserId(value.getId())
-                        .stream()
-                        .map(PaymentDTOMapper::toPaymentDTO)
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+    public ResponseEntity<?> getPayments(@RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         @RequestParam(value = "include", required = false) List<String> include,
+                                         @RequestParam(value = "bookedFrom", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bookedFrom,
+                                         @RequestParam(value = "bookedTo", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bookedTo,
+                                         @RequestParam(value = "accountNumber", required = false) String accountNumber) {
+        int pageSize = limit == null ? paymentsDefaultLimit : limit;
+        if (pageSize < 1 || pageSize > paymentsMaxLimit) {
+            return status(400).body(new Message("FAIL", "Limit must be between 1 and " + paymentsMaxLimit));
+        }
+        if (bookedFrom != null && bookedTo != null && bookedFrom.isAfter(bookedTo)) {
+            return status(400).body(new Message("FAIL", "bookedFrom must not be after bookedTo"));
+        }
+
+        PaymentPage page;
+        try {
+            var filter = new PaymentFilter(bookedFrom, bookedTo, accountNumber);
+            page = paymentService.getPayments(cursor, pageSize, includesRawResponse(include), filter);
+        } catch (IllegalArgumentException e) {
+            return status(400).body(new Message("FAIL", e.getMessage()));
+        }
+
+        var response = ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Totals of the current user's payments per booking month, type and currency, read from the
+     * maintained summaries rather than the payments.
+     */
+    @GetMapping("/payments/summary")
+    public ResponseEntity<?> getPaymentSummary() {
+        return ok().body(paymentSummaryService.getSummary(authenticationHandler.getCurrentUserId()));
+    }
+
+    /**
+     * Streams the current user's whole payment history as newline-delimited JSON. Rows are written
+     * to the response as they are read, nothing is collected in memory first.
+     */
+    @GetMapping(value = "/payments/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(value = "include", required = false) List<String> include) {
+        long userId = authenticationHandler.getCurrentUserId();
+        boolean includeRawResponse = includesRawResponse(include);
+        return ok().contentType(NDJSON)
+                .body(out -> paymentService.exportPayments(userId, includeRawResponse, out));
+    }
+
+    private static boolean includesRawResponse(List<String> include) {
+        return include != null && include.contains(INCLUDE_RAW_RESPONSE);
     }
 
 }
\ No newline at end of file
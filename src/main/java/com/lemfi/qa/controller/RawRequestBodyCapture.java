@@ -0,0 +1,66 @@
+package com.lemfi.qa.controller;
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Reads a single {@link TransactionRequestDTO} body into one byte array, lets Jackson parse
+ * from that array and hands the same array to the DTO as {@code rawBody}, so the payment stores
+ * exactly what the client sent without serializing the DTO again.
+ */
+@ControllerAdvice
+public class RawRequestBodyCapture extends RequestBodyAdviceAdapter {
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == TransactionRequestDTO.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        return new CapturedInputMessage(inputMessage.getHeaders(), inputMessage.getBody().readAllBytes());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (body instanceof TransactionRequestDTO && inputMessage instanceof CapturedInputMessage) {
+            ((TransactionRequestDTO) body).setRawBody(((CapturedInputMessage) inputMessage).body);
+        }
+        return body;
+    }
+
+    private static final class CapturedInputMessage implements HttpInputMessage {
+
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private CapturedInputMessage(HttpHeaders headers, byte[] body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+}
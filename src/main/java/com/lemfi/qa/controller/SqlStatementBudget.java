@@ -0,0 +1,105 @@
+package com.lemfi.qa.controller;
+
+import com.lemfi.qa.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+
+/**
+ * Counts the SQL statements each controller call issues and compares them with its budget,
+ * {@code sql.statements.budget.<Controller>.<method>} or {@code sql.statements.budget.default}.
+ * Every count is recorded as {@code http.server.sql.statements}, tagged with the handler, and
+ * calls over budget are logged. With {@code sql.statements.debug=true} the count so far and the
+ * budget are also sent as {@value #COUNT_HEADER} and {@value #BUDGET_HEADER} headers, set just
+ * before the body is written. Streamed responses are counted up to the point the stream is handed
+ * to the async dispatch.
+ */
+@Slf4j
+@ControllerAdvice
+@RequiredArgsConstructor
+public class SqlStatementBudget implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    public static final String COUNT_HEADER = "X-Sql-Statements";
+    public static final String BUDGET_HEADER = "X-Sql-Statement-Budget";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql.statements.debug:false}")
+    private boolean debug;
+
+    @Value("${sql.statements.budget.default:20}")
+    private int defaultBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        int statements = SqlStatementCounter.stop();
+        String name = handlerName(((HandlerMethod) handler).getMethod());
+        DistributionSummary.builder("http.server.sql.statements")
+                .tag("handler", name)
+                .register(meterRegistry)
+                .record(statements);
+        int budget = budget(name);
+        if (statements > budget) {
+            log.warn("{} {} issued {} SQL statements, budget is {}", request.getMethod(), request.getRequestURI(),
+                    statements, budget);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.stop();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return debug;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int statements = SqlStatementCounter.current();
+        if (statements >= 0 && returnType.getMethod() != null) {
+            response.getHeaders().set(COUNT_HEADER, String.valueOf(statements));
+            response.getHeaders().set(BUDGET_HEADER, String.valueOf(budget(handlerName(returnType.getMethod()))));
+        }
+        return body;
+    }
+
+    private int budget(String handlerName) {
+        return environment.getProperty("sql.statements.budget." + handlerName, Integer.class, defaultBudget);
+    }
+
+    private static String handlerName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
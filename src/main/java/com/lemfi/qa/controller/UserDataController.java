@@ -31,9 +31,7 @@ public class UserDataController {
 
     @GetMapping("/balance")
     public ResponseEntity<?> getBalance() {
-        return userService.getUserBalance()
-                .map(balance -> ResponseEntity.ok().body(balance.toString()))
-                .orElse(status(400).body("Something went wrong"));
+        return ResponseEntity.ok().body(userService.getUserBalance());
     }
 
 }
@@ -1,14 +1,22 @@
 package com.lemfi.qa.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
 import com.lemfi.qa.domain.model.TransactionType;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class PaymentDTO {
 
     @JsonProperty("id")
@@ -20,6 +28,34 @@ public class PaymentDTO {
     @JsonProperty("amount")
     private BigDecimal amount;
 
+    @JsonProperty("currency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String currency;
+
     @JsonProperty("rawResponse")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String rawResponse;
+
+    /**
+     * Only read for pages in booking date order, whose cursor carries it; not part of the response.
+     */
+    @JsonIgnore
+    private LocalDate bookingDate;
+
+    public PaymentDTO(Long id, TransactionType transactionType, BigDecimal amount, String currency) {
+        this(id, transactionType, amount, currency, (String) null, null);
+    }
+
+    public PaymentDTO(Long id, TransactionType transactionType, BigDecimal amount, String currency, byte[] rawResponseDeflated) {
+        this(id, transactionType, amount, currency, DeflatedStringConverter.inflate(rawResponseDeflated), null);
+    }
+
+    public PaymentDTO(Long id, TransactionType transactionType, BigDecimal amount, String currency, LocalDate bookingDate) {
+        this(id, transactionType, amount, currency, (String) null, bookingDate);
+    }
+
+    public PaymentDTO(Long id, TransactionType transactionType, BigDecimal amount, String currency, LocalDate bookingDate,
+                      byte[] rawResponseDeflated) {
+        this(id, transactionType, amount, currency, DeflatedStringConverter.inflate(rawResponseDeflated), bookingDate);
+    }
 }
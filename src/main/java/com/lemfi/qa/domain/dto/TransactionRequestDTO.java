@@ -1,5 +1,6 @@
 package com.lemfi.qa.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.lemfi.qa.domain.model.TransactionType;
 import lombok.Getter;
@@ -37,6 +38,13 @@ public class TransactionRequestDTO {
     @PastOrPresent(message = "Booking date must be in the past or present")
     private LocalDate bookingDate;
 
+    /**
+     * UTF-8 body this request was deserialized from, set by {@code RawRequestBodyCapture}; null when
+     * the DTO was built in code or taken from a batch.
+     */
+    @JsonIgnore
+    private byte[] rawBody;
+
     @Getter
     @Setter
     public static class AmountDTO {
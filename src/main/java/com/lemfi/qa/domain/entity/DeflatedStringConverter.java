@@ -0,0 +1,102 @@
+package com.lemfi.qa.domain.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes text as raw DEFLATE bytes and back. Used for the request JSON kept on every payment,
+ * which is mapped as plain bytes and deflated or inflated by whoever writes or reads it. A single row
+ * is too short for DEFLATE to find much repetition on its own, so both sides are primed with a
+ * preset dictionary holding the keys and common values of that JSON.
+ * <p>
+ * Rows can only be read back with the exact dictionary they were written with, so a dictionary is
+ * never edited in place: a new one is added under the next version, and every row starts with a
+ * byte naming the version it was written with. That byte has both block type bits of a DEFLATE
+ * header set, a type DEFLATE doesn't define, so it can't be mistaken for the start of a row written
+ * before rows were versioned; those are read with the version 0 dictionary.
+ */
+public final class DeflatedStringConverter {
+
+    private static final byte[][] DICTIONARIES = {
+            // 0: rows written before the version byte; pins booking years, so it stopped helping
+            ("{\"accountNumber\":\"\",\"accountHolderFullName\":\"\","
+                    + "\"accountHolderPersonalId\":\"\",\"transactionType\":\"FUNDING\",\"transactionType\":\"REPAYMENT\","
+                    + "\"investorId\":\"\",\"amount\":{\"currency\":\"USD\",\"currency\":\"GBP\",\"currency\":\"EUR\",\"amount\":},"
+                    + "\"bookingDate\":\"2025-\"bookingDate\":\"2026-").getBytes(StandardCharsets.UTF_8),
+            // 1: keys and enum values only
+            ("{\"accountNumber\":\"\",\"accountHolderFullName\":\"\","
+                    + "\"accountHolderPersonalId\":\"\",\"transactionType\":\"FUNDING\",\"transactionType\":\"REPAYMENT\","
+                    + "\"investorId\":\"\",\"amount\":{\"currency\":\"USD\",\"currency\":\"GBP\",\"currency\":\"EUR\",\"amount\":},"
+                    + "\"bookingDate\":\"").getBytes(StandardCharsets.UTF_8)
+    };
+    private static final int VERSION = DICTIONARIES.length - 1;
+    private static final int BLOCK_TYPE_BITS = 0b110;
+
+    private DeflatedStringConverter() {
+    }
+
+    public static byte[] deflate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return deflate(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deflates UTF-8 text that is already in bytes, e.g. a request body as it was received.
+     */
+    public static byte[] deflate(byte[] input) {
+        if (input == null) {
+            return null;
+        }
+        var deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setDictionary(DICTIONARIES[VERSION]);
+            deflater.setInput(input);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(input.length / 2 + 16);
+            out.write(VERSION << 3 | BLOCK_TYPE_BITS);
+            byte[] buffer = new byte[Math.max(64, input.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String inflate(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        boolean versioned = value.length > 0 && (value[0] & BLOCK_TYPE_BITS) == BLOCK_TYPE_BITS;
+        int version = versioned ? (value[0] & 0xFF) >>> 3 : 0;
+        if (version >= DICTIONARIES.length) {
+            throw new IllegalArgumentException("Unknown deflate dictionary version " + version);
+        }
+        var inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(DICTIONARIES[version]);
+            inflater.setInput(value, versioned ? 1 : 0, versioned ? value.length - 1 : value.length);
+            var out = new ByteArrayOutputStream(value.length * 4);
+            byte[] buffer = new byte[Math.max(256, value.length * 4)];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException("Truncated deflate data");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -1,22 +1,37 @@
 package com.lemfi.qa.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.lemfi.qa.domain.model.TransactionType;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = @UniqueConstraint(name = "uk_payments_user_idempotency_key",
+        columnNames = {"user_id", "idempotency_key"}),
+        indexes = {
+                @Index(name = "idx_payments_user_id_id", columnList = "user_id, id"),
+                @Index(name = "idx_payments_user_booking_date", columnList = "user_id, booking_date, id"),
+                @Index(name = "idx_payments_user_account_number", columnList = "user_id, account_number, id")
+        })
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Payment {
 
+    public static final int RAW_RESPONSE_MAX_BYTES = 65_535;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = PooledSequenceGenerator.PAYMENTS_SEQUENCE)
+    @GenericGenerator(name = PooledSequenceGenerator.PAYMENTS_SEQUENCE, strategy = "com.lemfi.qa.domain.entity.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = PooledSequenceGenerator.PAYMENTS_SEQUENCE))
     private Long id;
 
     @Column(name = "type")
@@ -25,11 +40,50 @@ public class Payment {
     @Column(name = "amount")
     private BigDecimal amount;
 
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "booking_date")
+    private LocalDate bookingDate;
+
+    @Column(name = "account_number")
+    private String accountNumber;
+
+    @Column(name = "investor_id")
+    private String investorId;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
 
-    @Column(name = "raw_response")
-    private String rawResponse;
+    /**
+     * Request JSON, deflated by {@link DeflatedStringConverter}. Kept as bytes so the captured request
+     * body is stored without ever becoming a String. Payment reads go through projections that leave
+     * it out unless it is asked for; the lazy hint only takes effect for entity loads with bytecode
+     * enhancement.
+     */
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "raw_response_deflated", length = RAW_RESPONSE_MAX_BYTES)
+    private byte[] rawResponseDeflated;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    /**
+     * Set by the column backfill on legacy payments whose stored request has no readable booking
+     * date, so they are not parsed again on every startup.
+     */
+    @JsonIgnore
+    @Column(name = "booking_date_unknown")
+    private Boolean bookingDateUnknown;
+
+    public String getRawResponse() {
+        return DeflatedStringConverter.inflate(rawResponseDeflated);
+    }
+
+    public void setRawResponse(String rawResponse) {
+        this.rawResponseDeflated = DeflatedStringConverter.deflate(rawResponse);
+    }
 
 }
\ No newline at end of file
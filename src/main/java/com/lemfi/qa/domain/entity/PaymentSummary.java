@@ -0,0 +1,68 @@
+package com.lemfi.qa.domain.entity;
+
+
+import com.lemfi.qa.domain.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number and total of a user's payments of one type and currency booked in one month, in minor
+ * units of the currency. Kept up to date in the transaction that inserts the payments, so
+ * summaries are read without touching the payments table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_summaries")
+@IdClass(PaymentSummary.Key.class)
+public class PaymentSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "type")
+    private TransactionType type;
+
+    @Id
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    /** First day of the booking month. */
+    @Id
+    @Column(name = "booking_month")
+    private LocalDate bookingMonth;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    private User user;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private TransactionType type;
+        private String currency;
+        private LocalDate bookingMonth;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.lemfi.qa.domain.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator using the pooled-lo optimizer: each {@code nextval} reserves a block of
+ * {@code allocation_size} ids that are handed out in memory, so inserts need no round trip for
+ * the id and Hibernate can batch them. The block size is read from the
+ * {@value #ALLOCATION_SIZE_SETTING} Hibernate setting
+ * ({@code spring.jpa.properties.lemfi.id.allocation_size}) and must match the sequence increment,
+ * which {@link com.lemfi.qa.repository.SequenceIdAllocator} keeps in sync.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "lemfi.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    public static final String PAYMENTS_SEQUENCE = "payments_seq";
+    public static final String USERS_SEQUENCE = "users_seq";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        var settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(settings.get(ALLOCATION_SIZE_SETTING))));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+    public static int allocationSize(Object configured) {
+        return configured == null ? DEFAULT_ALLOCATION_SIZE : Integer.parseInt(configured.toString().trim());
+    }
+
+}
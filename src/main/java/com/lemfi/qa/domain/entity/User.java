@@ -4,20 +4,25 @@ package com.lemfi.qa.domain.entity;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email"))
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = PooledSequenceGenerator.USERS_SEQUENCE)
+    @GenericGenerator(name = PooledSequenceGenerator.USERS_SEQUENCE, strategy = "com.lemfi.qa.domain.entity.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = PooledSequenceGenerator.USERS_SEQUENCE))
     private Long id;
 
     @Column(name = "email")
@@ -35,10 +40,14 @@ public class User {
     @Column(name = "personal_id")
     private Long personalId;
 
+    /**
+     * When a personal data update last reset the balances. From then on they no longer follow
+     * from the payments, so balance reconciliation leaves the user out.
+     */
+    @Column(name = "balances_reset_at")
+    private Instant balancesResetAt;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Payment> payments;
 
-    @Column(name = "balance")
-    private BigDecimal balance;
-
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.lemfi.qa.domain.entity;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Balance of one user in one currency, in minor units of that currency (cents for EUR, yen for
+ * JPY), so credits are plain {@code long} additions in SQL. The row is created by the first
+ * credit in the currency.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "user_balances")
+@IdClass(UserBalance.Key.class)
+public class UserBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    private User user;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String currency;
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddFundsBatchItemResult {
+    private int index;
+    private String status;
+    private Long paymentId;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddFundsBatchResponse {
+    private int imported;
+    private int rejected;
+    private List<AddFundsBatchItemResult> items;
+}
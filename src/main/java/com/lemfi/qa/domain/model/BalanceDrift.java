@@ -0,0 +1,19 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceDrift {
+    private Long userId;
+    private String currency;
+    /** Stored balance, null when the user has payments in the currency but no balance row. */
+    private BigDecimal storedBalance;
+    private BigDecimal paymentsTotal;
+    private boolean fixed;
+}
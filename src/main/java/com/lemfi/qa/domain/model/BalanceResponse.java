@@ -0,0 +1,16 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceResponse {
+    /** Balance per ISO 4217 currency code; currencies the user was never credited in are absent. */
+    private Map<String, BigDecimal> balances;
+}
@@ -0,0 +1,74 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for payment listings: the id of the last payment returned, preceded by its
+ * booking date for pages in booking date order.
+ */
+public final class PaymentCursor {
+
+    private static final char SEPARATOR = '/';
+
+    private PaymentCursor() {
+    }
+
+    public static String encode(long lastPaymentId) {
+        return encodeText(Long.toString(lastPaymentId));
+    }
+
+    public static String encode(LocalDate lastBookingDate, long lastPaymentId) {
+        return encodeText(lastBookingDate.toString() + SEPARATOR + lastPaymentId);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(long)}
+     */
+    public static long decode(String cursor) {
+        try {
+            return Long.parseLong(decodeText(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(LocalDate, long)}
+     */
+    public static BookingPosition decodeBookingPosition(String cursor) {
+        try {
+            String text = decodeText(cursor);
+            int separator = text.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("No booking date");
+            }
+            return new BookingPosition(LocalDate.parse(text.substring(0, separator)),
+                    Long.parseLong(text.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static String encodeText(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String decodeText(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Booking date and id of the last payment of a page in booking date order.
+     */
+    @Value
+    public static class BookingPosition {
+        LocalDate bookingDate;
+        long paymentId;
+    }
+
+}
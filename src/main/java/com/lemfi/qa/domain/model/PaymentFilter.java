@@ -0,0 +1,26 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for listing payments; null fields do not filter. Booking dates are inclusive.
+ */
+@Value
+public class PaymentFilter {
+
+    public static final PaymentFilter NONE = new PaymentFilter(null, null, null);
+
+    LocalDate bookedFrom;
+    LocalDate bookedTo;
+    String accountNumber;
+
+    public boolean isEmpty() {
+        return bookedFrom == null && bookedTo == null && accountNumber == null;
+    }
+
+    public boolean hasBookingDates() {
+        return bookedFrom != null || bookedTo != null;
+    }
+}
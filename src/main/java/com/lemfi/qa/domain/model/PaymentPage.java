@@ -0,0 +1,16 @@
+package com.lemfi.qa.domain.model;
+
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentPage {
+    private List<PaymentDTO> items;
+    private String next;
+}
@@ -0,0 +1,28 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentSummaryResponse {
+    /** One entry per booking month, type and currency the user has payments in, oldest month first. */
+    private List<MonthlyTotal> totals;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MonthlyTotal {
+        /** Booking month as {@code yyyy-MM}. */
+        private String month;
+        private TransactionType type;
+        private String currency;
+        private long count;
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,20 @@
+package com.lemfi.qa.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationReport {
+    private boolean fix;
+    private long ranges;
+    private long paymentsScanned;
+    private long durationMillis;
+    private List<BalanceDrift> drifts;
+    /** NDJSON file the drifts were written to, one {@link BalanceDrift} per line. */
+    private String reportFile;
+}
@@ -1,6 +1,7 @@
 package com.lemfi.qa.domain.model;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.lemfi.qa.domain.dto.UserDTO;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,4 +13,12 @@ import lombok.NoArgsConstructor;
 public class RegisterUserResponse {
     private UserDTO user;
     private Message message;
+
+    /** Bearer token for {@code /api/**}, only issued when {@code auth.mode=token}. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+
+    public RegisterUserResponse(UserDTO user, Message message) {
+        this(user, message, null);
+    }
 }
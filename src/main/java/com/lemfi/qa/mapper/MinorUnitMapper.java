@@ -0,0 +1,36 @@
+package com.lemfi.qa.mapper;
+
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Converts between decimal amounts and minor units of an ISO 4217 currency, using the
+ * currency's default number of fraction digits (2 for EUR, 0 for JPY, 3 for BHD).
+ */
+public class MinorUnitMapper {
+
+    /**
+     * @throws ArithmeticException if {@code amount} has more decimals than the currency or does not fit a long
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        int fractionDigits = fractionDigits(currency);
+        if (fractionDigits < 0) {
+            throw new IllegalArgumentException("Currency has no minor units: " + currency);
+        }
+        return amount.movePointRight(fractionDigits).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    /**
+     * @return fraction digits of the currency, -1 for codes without minor units (such as XAU)
+     * @throws IllegalArgumentException if {@code currency} is not an ISO 4217 code
+     */
+    public static int fractionDigits(String currency) {
+        return Currency.getInstance(currency).getDefaultFractionDigits();
+    }
+
+}
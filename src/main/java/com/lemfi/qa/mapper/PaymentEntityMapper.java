@@ -8,6 +8,7 @@ import com.lemfi.qa.domain.model.TransactionType;
 import lombok.SneakyThrows;
 
 import static com.lemfi.qa.JsonConverter.toJsonString;
+import static com.lemfi.qa.domain.entity.DeflatedStringConverter.deflate;
 
 
 public class PaymentEntityMapper {
@@ -17,9 +18,29 @@ public class PaymentEntityMapper {
         var paymentEntity = new Payment();
         paymentEntity.setType(type);
         paymentEntity.setAmount(transactionRequestDTO.getAmount().getAmount());
+        paymentEntity.setCurrency(transactionRequestDTO.getAmount().getCurrency());
+        paymentEntity.setBookingDate(transactionRequestDTO.getBookingDate());
+        paymentEntity.setAccountNumber(transactionRequestDTO.getAccountNumber());
+        paymentEntity.setInvestorId(transactionRequestDTO.getInvestorId());
         paymentEntity.setUser(user);
-        paymentEntity.setRawResponse(toJsonString(transactionRequestDTO));
+        paymentEntity.setRawResponseDeflated(rawResponseDeflated(transactionRequestDTO));
         return paymentEntity;
     }
 
+    /**
+     * Deflated request JSON for the payment: the body bytes as the client sent them when they were
+     * captured, otherwise the DTO serialized again. Oversized bodies fall back to the serialized
+     * form too, which only holds the known fields.
+     */
+    public static byte[] rawResponseDeflated(TransactionRequestDTO transactionRequestDTO) {
+        byte[] rawBody = transactionRequestDTO.getRawBody();
+        if (rawBody != null) {
+            byte[] deflated = deflate(rawBody);
+            if (deflated.length <= Payment.RAW_RESPONSE_MAX_BYTES) {
+                return deflated;
+            }
+        }
+        return deflate(toJsonString(transactionRequestDTO));
+    }
+
 }
@@ -0,0 +1,173 @@
+package com.lemfi.qa.repository;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
+
+/**
+ * Seeds {@code user_balances} from the single {@code users.balance} column that held each user's
+ * balance before balances were kept per currency. That column added up credits whatever their
+ * currency, so the currency is taken from the user's payments: with payments in one currency the
+ * legacy balance is the balance in that currency, with payments in several currencies that add up
+ * to it each currency gets its payment total.
+ * <p>
+ * Any other non-zero legacy balance can't be split without guessing, and startup fails with the
+ * ids of those users until their {@code user_balances} rows are seeded by hand or their legacy
+ * balance is set to 0. Users whose seeded balances differ from their payment totals had them reset
+ * by a personal data update and get {@code balances_reset_at}, so reconciliation leaves them alone.
+ * <p>
+ * Each chunk of users is seeded in one transaction and users that already have balances are
+ * skipped, so the migration resumes where it stopped. Once every user is migrated the column is
+ * renamed to {@code balance_migrated}; the migration is a no-op from then on and on schemas that
+ * never had the column.
+ */
+@Slf4j
+@Component
+@DependsOn({"entityManagerFactory", "paymentColumnsBackfill"})
+public class LegacyBalanceMigration {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int REPORTED_USERS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacyBalanceMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void migrateLegacyBalances() {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE balance IS NOT NULL", Long.class);
+        } catch (BadSqlGrammarException e) {
+            log.debug("No legacy users.balance column, nothing to migrate");
+            return;
+        }
+
+        List<Long> unsplittable = new ArrayList<>();
+        long seeded = 0;
+        long reset = 0;
+        long afterId = Long.MIN_VALUE;
+        List<Object[]> chunk;
+        do {
+            chunk = jdbcTemplate.query("SELECT u.id, u.balance FROM users u WHERE u.id > ? AND u.balance IS NOT NULL "
+                            + "AND NOT EXISTS (SELECT 1 FROM user_balances b WHERE b.user_id = u.id) ORDER BY u.id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getBigDecimal(2)}, afterId, CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = (Long) chunk.get(chunk.size() - 1)[0];
+            long[] counts = migrateChunk(chunk, unsplittable);
+            seeded += counts[0];
+            reset += counts[1];
+        } while (chunk.size() == CHUNK_SIZE);
+
+        if (!unsplittable.isEmpty()) {
+            throw new IllegalStateException(String.format("%d users have a legacy users.balance that can't be split by "
+                            + "currency from their payments, e.g. %s. Insert their user_balances rows or set their "
+                            + "users.balance to 0, then restart.", unsplittable.size(),
+                    unsplittable.subList(0, Math.min(REPORTED_USERS, unsplittable.size()))));
+        }
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN balance RENAME TO balance_migrated");
+        log.info("Migrated legacy balances: {} users seeded, {} marked as reset", seeded, reset);
+    }
+
+    /**
+     * @return the number of users seeded and marked as reset
+     */
+    private long[] migrateChunk(List<Object[]> users, List<Long> unsplittable) {
+        Map<Long, Map<String, BigDecimal>> paymentTotals = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, currency, SUM(amount) FROM payments WHERE user_id BETWEEN ? AND ? "
+                        + "GROUP BY user_id, currency",
+                rs -> {
+                    paymentTotals.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).put(rs.getString(2), rs.getBigDecimal(3));
+                }, users.get(0)[0], users.get(users.size() - 1)[0]);
+
+        List<Object[]> balances = new ArrayList<>();
+        List<Object[]> resets = new ArrayList<>();
+        for (Object[] user : users) {
+            Long userId = (Long) user[0];
+            Map<String, BigDecimal> totals = paymentTotals.getOrDefault(userId, Map.of());
+            Map<String, Long> split = split((BigDecimal) user[1], totals);
+            if (split == null) {
+                unsplittable.add(userId);
+                continue;
+            }
+            split.forEach((currency, amountMinor) -> balances.add(new Object[]{userId, currency, amountMinor}));
+            if (!split.equals(inMinorUnits(totals))) {
+                resets.add(new Object[]{userId});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO user_balances (user_id, currency, amount_minor) VALUES (?, ?, ?)", balances);
+            jdbcTemplate.batchUpdate(
+                    "UPDATE users SET balances_reset_at = COALESCE(balances_reset_at, CURRENT_TIMESTAMP) WHERE id = ?", resets);
+        });
+        return new long[]{balances.stream().map(it -> it[0]).distinct().count(), resets.size()};
+    }
+
+    /**
+     * @return the legacy balance per currency in minor units, null if it can't be told which
+     * currencies it is made of
+     */
+    private static Map<String, Long> split(BigDecimal legacyBalance, Map<String, BigDecimal> paymentTotals) {
+        if (legacyBalance.signum() == 0) {
+            return Map.of();
+        }
+        if (paymentTotals.isEmpty() || paymentTotals.containsKey(null)) {
+            return null;
+        }
+        try {
+            Map<String, Long> split = new TreeMap<>();
+            if (paymentTotals.size() == 1) {
+                String currency = paymentTotals.keySet().iterator().next();
+                split.put(currency, toMinorUnits(legacyBalance, currency));
+                return split;
+            }
+            BigDecimal paid = paymentTotals.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (paid.compareTo(legacyBalance) != 0) {
+                return null;
+            }
+            paymentTotals.forEach((currency, total) -> split.put(currency, toMinorUnits(total, currency)));
+            return split;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return payment totals per currency in minor units, leaving out what can't be converted
+     */
+    private static Map<String, Long> inMinorUnits(Map<String, BigDecimal> paymentTotals) {
+        Map<String, Long> totals = new TreeMap<>();
+        paymentTotals.forEach((currency, total) -> {
+            try {
+                if (currency != null) {
+                    totals.put(currency, toMinorUnits(total, currency));
+                }
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                log.debug("Payment total of {} in {} left out: {}", total, currency, e.toString());
+            }
+        });
+        return totals;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.lemfi.qa.repository;
+
+
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Moves request JSON written before it was stored deflated from the old {@code raw_response}
+ * text column into {@code raw_response_deflated}, one chunk per statement batch. Rows are
+ * cleared in the old column as they are moved, so the migration resumes where it stopped and
+ * is a no-op once done or on schemas that never had the column.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class LegacyRawResponseMigration {
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void deflateLegacyRawResponses() {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE raw_response IS NOT NULL", Long.class);
+        } catch (BadSqlGrammarException e) {
+            log.debug("No legacy raw_response column, nothing to migrate");
+            return;
+        }
+
+        long migrated = 0;
+        List<Object[]> chunk;
+        do {
+            chunk = jdbcTemplate.query(
+                    "SELECT id, raw_response FROM payments WHERE raw_response IS NOT NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{DeflatedStringConverter.deflate(rs.getString(2)), rs.getLong(1)},
+                    CHUNK_SIZE);
+            jdbcTemplate.batchUpdate("UPDATE payments SET raw_response_deflated = ?, raw_response = NULL WHERE id = ?", chunk);
+            migrated += chunk.size();
+        } while (chunk.size() == CHUNK_SIZE);
+
+        log.info("Deflated {} legacy raw responses", migrated);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.lemfi.qa.repository;
+
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.model.TransactionType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.lemfi.qa.mapper.PaymentEntityMapper.rawResponseDeflated;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+
+/**
+ * Plain JDBC writer for bulk payment imports. Rows go out as one JDBC batch per call instead
+ * of one Hibernate persist per payment.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentBatchRepository {
+
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO payments (id, type, amount, currency, booking_date, account_number, investor_id, user_id, "
+                    + "raw_response_deflated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+
+    /**
+     * Inserts one payment row per request for the given user.
+     *
+     * @return payment ids, in the order of {@code requests}
+     */
+    @Timed("jdbc.repository.invocations")
+    public long[] insertPayments(Long userId, TransactionType type, List<TransactionRequestDTO> requests) {
+        long[] ids = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, requests.size());
+
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                TransactionRequestDTO request = requests.get(i);
+                statement.setLong(1, ids[i]);
+                // Payment.type is mapped without @Enumerated, so it is stored as the ordinal
+                statement.setInt(2, type.ordinal());
+                statement.setBigDecimal(3, request.getAmount().getAmount());
+                statement.setString(4, request.getAmount().getCurrency());
+                statement.setObject(5, request.getBookingDate());
+                statement.setString(6, request.getAccountNumber());
+                statement.setString(7, request.getInvestorId());
+                statement.setLong(8, userId);
+                statement.setBytes(9, rawResponseDeflated(request));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return requests.size();
+            }
+        });
+        return ids;
+    }
+
+}
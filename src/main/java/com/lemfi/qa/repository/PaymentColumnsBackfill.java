@@ -0,0 +1,97 @@
+package com.lemfi.qa.repository;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills {@code booking_date}, {@code account_number}, {@code investor_id} and {@code currency} of
+ * payments stored before those were columns, by parsing the stored request JSON. The id range is
+ * split into chunks that are parsed and updated in parallel, one statement batch per chunk. Only
+ * rows without a booking date are touched, so the backfill resumes where it stopped and is a
+ * no-op once done. Rows whose request is unreadable or has no booking date get the other columns
+ * it has and {@code booking_date_unknown}, which keeps them out of later runs. A currency that
+ * isn't a three-letter code is left out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn({"entityManagerFactory", "legacyRawResponseMigration"})
+public class PaymentColumnsBackfill {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int CURRENCY_LENGTH = 3;
+    private static final String PENDING = "booking_date IS NULL AND booking_date_unknown IS NULL "
+            + "AND raw_response_deflated IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${payments.backfill.threads:4}")
+    private int threads;
+
+    @PostConstruct
+    void backfillPaymentColumns() {
+        List<Long> range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM payments WHERE " + PENDING,
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)));
+        if (range == null || range.get(1) == 0) {
+            log.debug("No payments to backfill");
+            return;
+        }
+
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var chunks = new ArrayList<CompletableFuture<Integer>>();
+            for (long chunkStart = range.get(0); chunkStart <= range.get(1); chunkStart += CHUNK_SIZE) {
+                long fromId = chunkStart;
+                chunks.add(CompletableFuture.supplyAsync(() -> backfillChunk(fromId, fromId + CHUNK_SIZE - 1), executor));
+            }
+            int backfilled = chunks.stream().mapToInt(CompletableFuture::join).sum();
+            log.info("Backfilled booking date, account and currency columns of {} payments", backfilled);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    int backfillChunk(long fromId, long toId) {
+        List<Object[]> updates = jdbcTemplate.query(
+                "SELECT id, raw_response_deflated FROM payments WHERE id BETWEEN ? AND ? AND " + PENDING,
+                (rs, rowNum) -> columnsOf(rs.getLong(1), rs.getBytes(2)), fromId, toId);
+        jdbcTemplate.batchUpdate("UPDATE payments SET booking_date = ?, account_number = ?, investor_id = ?, "
+                + "currency = COALESCE(currency, ?), booking_date_unknown = ? WHERE id = ?", updates);
+        return (int) updates.stream().filter(columns -> columns[0] != null).count();
+    }
+
+    private static Object[] columnsOf(long id, byte[] rawResponseDeflated) {
+        TransactionRequestDTO request;
+        try {
+            request = JsonConverter.mapper.readValue(DeflatedStringConverter.inflate(rawResponseDeflated),
+                    TransactionRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Payment {} has an unreadable raw response, not backfilled: {}", id, e.getOriginalMessage());
+            return new Object[]{null, null, null, null, true, id};
+        }
+        String currency = request.getAmount() == null ? null : request.getAmount().getCurrency();
+        if (currency != null && currency.length() != CURRENCY_LENGTH) {
+            log.warn("Payment {} has currency '{}', which isn't a currency code, not backfilled", id, currency);
+            currency = null;
+        }
+        Boolean bookingDateUnknown = request.getBookingDate() == null ? true : null;
+        return new Object[]{request.getBookingDate(), request.getAccountNumber(), request.getInvestorId(), currency,
+                bookingDateUnknown, id};
+    }
+
+}
@@ -1,16 +1,57 @@
 package com.lemfi.qa.repository;
 
 
+import com.lemfi.qa.domain.dto.PaymentDTO;
 import com.lemfi.qa.domain.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
-    List<Payment> findByUserId(Long id);
+    /**
+     * Payments of the user with an id above {@code afterId}, oldest first, without the raw response.
+     */
+    @Query("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency) from Payment p "
+            + "where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<PaymentDTO> findPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Same page as {@link #findPageByUserId}, including the inflated raw response.
+     */
+    @Query("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency, p.rawResponseDeflated) from Payment p "
+            + "where p.user.id = :userId and p.id > :afterId order by p.id")
+    List<PaymentDTO> findPageWithRawResponseByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Forward-only cursor over all payments of the user as {@link PaymentDTO} rows, oldest first.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency) from Payment p "
+            + "where p.user.id = :userId order by p.id")
+    Stream<PaymentDTO> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * Same cursor as {@link #streamByUserId}, including the inflated raw response.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency, p.rawResponseDeflated) from Payment p "
+            + "where p.user.id = :userId order by p.id")
+    Stream<PaymentDTO> streamWithRawResponseByUserId(@Param("userId") Long userId);
+
+    @Query("select p.id from Payment p where p.user.id = :userId and p.idempotencyKey = :idempotencyKey")
+    Optional<Long> findIdByUserIdAndIdempotencyKey(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
 
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.lemfi.qa.repository;
+
+
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.model.PaymentCursor;
+import com.lemfi.qa.domain.model.PaymentFilter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * Filtered keyset pages of a user's payments, carrying only the predicates that are set.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentSearchRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Payments matching {@code filter} after {@code afterId}, in id order.
+     */
+    @Timed("jdbc.repository.invocations")
+    public List<PaymentDTO> findPage(Long userId, long afterId, PaymentFilter filter, boolean includeRawResponse, int limit) {
+        var jpql = new StringBuilder("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency")
+                .append(includeRawResponse ? ", p.rawResponseDeflated" : "")
+                .append(") from Payment p where p.user.id = :userId and p.id > :afterId");
+        appendFilter(jpql, filter);
+        jpql.append(" order by p.id");
+
+        TypedQuery<PaymentDTO> query = entityManager.createQuery(jpql.toString(), PaymentDTO.class)
+                .setParameter("userId", userId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit);
+        setFilter(query, filter);
+        return query.getResultList();
+    }
+
+    /**
+     * Payments matching {@code filter} after {@code after} (from the start when null), in booking date order.
+     */
+    @Timed("jdbc.repository.invocations")
+    public List<PaymentDTO> findPageByBookingDate(Long userId, PaymentCursor.BookingPosition after, PaymentFilter filter,
+                                                  boolean includeRawResponse, int limit) {
+        var jpql = new StringBuilder("select new com.lemfi.qa.domain.dto.PaymentDTO(p.id, p.type, p.amount, p.currency, "
+                + "p.bookingDate")
+                .append(includeRawResponse ? ", p.rawResponseDeflated" : "")
+                .append(") from Payment p where p.user.id = :userId");
+        if (after != null) {
+            jpql.append(" and (p.bookingDate > :afterBookingDate or (p.bookingDate = :afterBookingDate and p.id > :afterId))");
+        }
+        appendFilter(jpql, filter);
+        jpql.append(" order by p.bookingDate, p.id");
+
+        TypedQuery<PaymentDTO> query = entityManager.createQuery(jpql.toString(), PaymentDTO.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("afterBookingDate", after.getBookingDate());
+            query.setParameter("afterId", after.getPaymentId());
+        }
+        setFilter(query, filter);
+        return query.getResultList();
+    }
+
+    private static void appendFilter(StringBuilder jpql, PaymentFilter filter) {
+        if (filter.getBookedFrom() != null) {
+            jpql.append(" and p.bookingDate >= :bookedFrom");
+        }
+        if (filter.getBookedTo() != null) {
+            jpql.append(" and p.bookingDate <= :bookedTo");
+        }
+        if (filter.getAccountNumber() != null) {
+            jpql.append(" and p.accountNumber = :accountNumber");
+        }
+    }
+
+    private static void setFilter(TypedQuery<PaymentDTO> query, PaymentFilter filter) {
+        if (filter.getBookedFrom() != null) {
+            query.setParameter("bookedFrom", filter.getBookedFrom());
+        }
+        if (filter.getBookedTo() != null) {
+            query.setParameter("bookedTo", filter.getBookedTo());
+        }
+        if (filter.getAccountNumber() != null) {
+            query.setParameter("accountNumber", filter.getAccountNumber());
+        }
+    }
+
+}
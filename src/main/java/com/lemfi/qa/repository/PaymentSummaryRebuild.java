@@ -0,0 +1,129 @@
+package com.lemfi.qa.repository;
+
+
+import com.lemfi.qa.domain.entity.PaymentSummary;
+import com.lemfi.qa.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
+
+/**
+ * Recomputes {@code payment_summaries} from the payments table. The id range is split into
+ * chunks that are grouped by the database in parallel; the partial totals are merged and swapped
+ * in for the old rows in one transaction. Runs on startup, before requests are served, when
+ * started with {@code --payments.summary.rebuild=true} or when payments exist but no summaries
+ * do yet. Payments without a booking date are not summarized, and neither are groups whose
+ * amount can't be put in minor units of their currency; those are logged and left out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn({"entityManagerFactory", "paymentColumnsBackfill"})
+public class PaymentSummaryRebuild {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final String SUMMARIZE_CHUNK = "SELECT user_id, type, currency, YEAR(booking_date), MONTH(booking_date), "
+            + "COUNT(*), SUM(amount) FROM payments WHERE id BETWEEN ? AND ? AND booking_date IS NOT NULL "
+            + "AND currency IS NOT NULL GROUP BY user_id, type, currency, YEAR(booking_date), MONTH(booking_date)";
+    private static final String INSERT_SUMMARY = "INSERT INTO payment_summaries "
+            + "(user_id, type, currency, booking_month, payment_count, amount_minor) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${payments.summary.rebuild:false}")
+    private boolean rebuildRequested;
+
+    @Value("${payments.summary.rebuild-threads:4}")
+    private int threads;
+
+    @PostConstruct
+    void rebuildOnStartup() {
+        boolean missing = !jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM payment_summaries)", Boolean.class)
+                && jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM payments)", Boolean.class);
+        if (rebuildRequested || missing) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<PaymentSummary.Key, long[]> totals = summarizePayments();
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rows.add(new Object[]{key.getUserId(), key.getType().ordinal(), key.getCurrency(),
+                Date.valueOf(key.getBookingMonth()), total[0], total[1]}));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM payment_summaries");
+            jdbcTemplate.batchUpdate(INSERT_SUMMARY, rows);
+        });
+        log.info("Rebuilt {} payment summaries in {} ms", rows.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private Map<PaymentSummary.Key, long[]> summarizePayments() {
+        List<Long> range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM payments",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)));
+        Map<PaymentSummary.Key, long[]> totals = new HashMap<>();
+        if (range == null || range.get(1) == 0) {
+            return totals;
+        }
+
+        // a group that spans chunks is left out entirely, not just its unreadable part
+        Set<PaymentSummary.Key> skipped = ConcurrentHashMap.newKeySet();
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var chunks = new ArrayList<CompletableFuture<Map<PaymentSummary.Key, long[]>>>();
+            for (long chunkStart = range.get(0); chunkStart <= range.get(1); chunkStart += CHUNK_SIZE) {
+                long fromId = chunkStart;
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> summarizeChunk(fromId, fromId + CHUNK_SIZE - 1, skipped), executor));
+            }
+            for (CompletableFuture<Map<PaymentSummary.Key, long[]>> chunk : chunks) {
+                chunk.join().forEach((key, total) -> totals.merge(key, total,
+                        (a, b) -> new long[]{a[0] + b[0], Math.addExact(a[1], b[1])}));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        totals.keySet().removeAll(skipped);
+        return totals;
+    }
+
+    private Map<PaymentSummary.Key, long[]> summarizeChunk(long fromId, long toId, Set<PaymentSummary.Key> skipped) {
+        Map<PaymentSummary.Key, long[]> totals = new HashMap<>();
+        jdbcTemplate.query(SUMMARIZE_CHUNK, rs -> {
+            String currency = rs.getString(3);
+            var key = new PaymentSummary.Key(rs.getLong(1), TransactionType.values()[rs.getInt(2)], currency,
+                    LocalDate.of(rs.getInt(4), rs.getInt(5), 1));
+            try {
+                totals.put(key, new long[]{rs.getLong(6), toMinorUnits(rs.getBigDecimal(7), currency)});
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                if (skipped.add(key)) {
+                    log.warn("Payments of user {} in {} booked in {} not summarized: {}", key.getUserId(), currency,
+                            key.getBookingMonth(), e.toString());
+                }
+            }
+        }, fromId, toId);
+        return totals;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.lemfi.qa.repository;
+
+import com.lemfi.qa.domain.entity.PaymentSummary;
+import com.lemfi.qa.domain.model.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentSummaryRepository extends JpaRepository<PaymentSummary, PaymentSummary.Key> {
+
+    List<PaymentSummary> findByUserIdOrderByBookingMonthAscTypeAscCurrencyAsc(Long userId);
+
+    /**
+     * Adds {@code paymentCount} payments totalling {@code amountMinor} to the summary row in a
+     * single UPDATE, like {@link UserBalanceRepository#credit}.
+     *
+     * @return number of updated rows, 0 when the row does not exist yet
+     */
+    @Modifying
+    @Query("update PaymentSummary s set s.paymentCount = s.paymentCount + :paymentCount, "
+            + "s.amountMinor = s.amountMinor + :amountMinor where s.userId = :userId and s.type = :type "
+            + "and s.currency = :currency and s.bookingMonth = :bookingMonth")
+    int add(@Param("userId") Long userId, @Param("type") TransactionType type, @Param("currency") String currency,
+            @Param("bookingMonth") LocalDate bookingMonth, @Param("paymentCount") long paymentCount,
+            @Param("amountMinor") long amountMinor);
+
+    /**
+     * Opens the summary row. Fails on the primary key if a concurrent insert opened it first.
+     */
+    @Modifying
+    @Query(value = "insert into payment_summaries (user_id, type, currency, booking_month, payment_count, amount_minor) "
+            + "values (:userId, :type, :currency, :bookingMonth, :paymentCount, :amountMinor)", nativeQuery = true)
+    void open(@Param("userId") Long userId, @Param("type") int type, @Param("currency") String currency,
+              @Param("bookingMonth") LocalDate bookingMonth, @Param("paymentCount") long paymentCount,
+              @Param("amountMinor") long amountMinor);
+}
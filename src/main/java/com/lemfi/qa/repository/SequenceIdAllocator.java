@@ -0,0 +1,70 @@
+package com.lemfi.qa.repository;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.ALLOCATION_SIZE_SETTING;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.USERS_SEQUENCE;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.allocationSize;
+
+/**
+ * Owns the id sequences behind {@link com.lemfi.qa.domain.entity.PooledSequenceGenerator}.
+ * <p>
+ * On startup, after Hibernate has created or updated the schema, every sequence is moved past
+ * the highest id already stored, so rows written under the old identity columns keep their ids,
+ * and its increment is set to the configured allocation size. Plain JDBC writers use
+ * {@link #allocate(String, int)} to draw ids from the same pooled blocks as Hibernate.
+ */
+@Slf4j
+@Component
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    private final int allocationSize;
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.allocationSize = allocationSize(entityManagerFactory.getProperties().get(ALLOCATION_SIZE_SETTING));
+    }
+
+    @PostConstruct
+    void alignSequences() {
+        align(PAYMENTS_SEQUENCE, "payments");
+        align(USERS_SEQUENCE, "users");
+    }
+
+    /**
+     * Reserves {@code count} ids, one sequence call per block of allocation size.
+     */
+    public long[] allocate(String sequence, int count) {
+        long[] ids = new long[count];
+        String nextValue = dialect.getSequenceNextValString(sequence);
+        for (int i = 0; i < count; i += allocationSize) {
+            long low = jdbcTemplate.queryForObject(nextValue, Long.class);
+            for (int j = i; j < Math.min(i + allocationSize, count); j++) {
+                ids[j] = low + (j - i);
+            }
+        }
+        return ids;
+    }
+
+    private void align(String sequence, String table) {
+        long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+
+        String restart = maxId != null && maxId >= next ? " RESTART WITH " + (maxId + 1) : "";
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + restart + " INCREMENT BY " + allocationSize);
+        log.info("Sequence {} aligned: max id {}, allocation size {}", sequence, maxId, allocationSize);
+    }
+
+}
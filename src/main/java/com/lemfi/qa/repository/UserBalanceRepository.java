@@ -0,0 +1,40 @@
+package com.lemfi.qa.repository;
+
+import com.lemfi.qa.domain.entity.UserBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserBalanceRepository extends JpaRepository<UserBalance, UserBalance.Key> {
+
+    List<UserBalance> findByUserId(Long userId);
+
+    /**
+     * Adds {@code amountMinor} to the user's balance in {@code currency} in a single UPDATE, so
+     * concurrent credits are serialized by the row lock instead of racing in Java.
+     *
+     * @return number of updated rows, 0 when the user has no balance in the currency yet
+     */
+    @Modifying
+    @Query("update UserBalance b set b.amountMinor = b.amountMinor + :amountMinor "
+            + "where b.userId = :userId and b.currency = :currency")
+    int credit(@Param("userId") Long userId, @Param("currency") String currency, @Param("amountMinor") long amountMinor);
+
+    /**
+     * Opens the balance in {@code currency}. Fails on the primary key if a concurrent credit opened
+     * it first, and on the foreign key if the user does not exist.
+     */
+    @Modifying
+    @Query(value = "insert into user_balances (user_id, currency, amount_minor) values (:userId, :currency, :amountMinor)",
+            nativeQuery = true)
+    void open(@Param("userId") Long userId, @Param("currency") String currency, @Param("amountMinor") long amountMinor);
+
+    @Modifying
+    @Query("delete from UserBalance b where b.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
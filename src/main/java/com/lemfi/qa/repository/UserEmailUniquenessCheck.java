@@ -0,0 +1,44 @@
+package com.lemfi.qa.repository;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Makes sure {@code uk_users_email} exists. The schema update only logs it when the constraint
+ * can't be added over emails that were registered more than once, and the application would then
+ * run without it. Startup fails instead, naming the duplicated emails, until those users are
+ * merged or renamed; once they are, the constraint is added here, so no second restart is needed.
+ * H2-specific, like the other startup migrations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class UserEmailUniquenessCheck {
+
+    private static final int REPORTED_EMAILS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void checkEmailsAreUnique() {
+        Long duplicated = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "(SELECT email FROM users WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1)", Long.class);
+        if (duplicated != null && duplicated > 0) {
+            List<String> emails = jdbcTemplate.queryForList("SELECT email FROM users WHERE email IS NOT NULL "
+                    + "GROUP BY email HAVING COUNT(*) > 1 ORDER BY email LIMIT ?", String.class, REPORTED_EMAILS);
+            throw new IllegalStateException(String.format("%d emails are registered to more than one user, e.g. %s, "
+                    + "so uk_users_email can't be added. Merge or rename those users, then restart.", duplicated, emails));
+        }
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS uk_users_email UNIQUE (email)");
+        log.debug("Emails are unique");
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.lemfi.qa.service;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.repository.UserBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process cache of user balances, keyed by user id, so balance polling is served from memory.
+ * Each entry maps currency code to the balance in minor units.
+ * <p>
+ * Writers call {@link #refreshAfterCommit(Long)}: once their transaction commits, a cached entry
+ * is re-read from the database under the cache's per-key lock. Loads and refreshes of one user are
+ * serialized by that lock and a refresh always starts after the commit, so a read never returns
+ * a balance older than the last local write. Users nobody polls cost writers nothing extra.
+ * The TTL bounds staleness for writes made elsewhere.
+ * Hit and miss counts are published as {@code cache.gets} with {@code cache=users.balance}.
+ */
+@Slf4j
+@Component
+public class BalanceCache {
+
+    private final UserBalanceRepository userBalanceRepository;
+    private final Cache<Long, Map<String, Long>> balances;
+
+    public BalanceCache(UserBalanceRepository userBalanceRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${balance.cache.max-size:100000}") long maxSize,
+                        @Value("${balance.cache.ttl:10m}") Duration ttl) {
+        this.userBalanceRepository = userBalanceRepository;
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, "users.balance");
+    }
+
+    public Map<String, Long> getBalances(Long userId) {
+        return balances.get(userId, this::loadBalances);
+    }
+
+    /**
+     * Re-reads the balance once the current transaction commits, or right away outside of one.
+     */
+    public void refreshAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(userId);
+            }
+        });
+    }
+
+    private void refresh(Long userId) {
+        balances.asMap().computeIfPresent(userId, (id, cached) -> loadBalances(id));
+    }
+
+    private Map<String, Long> loadBalances(Long userId) {
+        var minorUnitsByCurrency = new TreeMap<String, Long>();
+        for (UserBalance balance : userBalanceRepository.findByUserId(userId)) {
+            minorUnitsByCurrency.put(balance.getCurrency(), balance.getAmountMinor());
+        }
+        return Collections.unmodifiableMap(minorUnitsByCurrency);
+    }
+
+}
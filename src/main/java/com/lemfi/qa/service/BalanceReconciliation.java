@@ -0,0 +1,283 @@
+package com.lemfi.qa.service;
+
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.domain.model.BalanceDrift;
+import com.lemfi.qa.domain.model.ReconciliationReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
+
+/**
+ * Compares every stored balance with the total of the user's payments in that currency.
+ * <p>
+ * The user id space is split into ranges on a fork-join pool. Each range is summed with two
+ * grouped queries, one over payments and one over balances, so no lock is held for longer than
+ * a range takes to read. Mismatches are checked again with the balance row locked; credits
+ * update that row before inserting their payment, so the second check cannot see a credit half
+ * done. In fix mode the balance is set to the payment total in the same transaction.
+ * <p>
+ * Users whose balances were reset by a personal data update ({@code users.balances_reset_at})
+ * are skipped, as their balances no longer follow from their payments. So are payment groups
+ * whose currency or amount can't be converted to minor units; they are logged instead.
+ * <p>
+ * Drifts are written to an NDJSON report. Progress and throughput are published as
+ * {@code balances.reconciliation.*} meters. Starting the app with
+ * {@code balances.reconciliation.mode=report} or {@code fix} runs it once the app is ready.
+ */
+@Slf4j
+@Component
+public class BalanceReconciliation {
+
+    private static final String SUM_PAYMENTS = "SELECT p.user_id, p.currency, COUNT(*), SUM(p.amount) FROM payments p "
+            + "JOIN users u ON u.id = p.user_id "
+            + "WHERE p.user_id BETWEEN ? AND ? AND p.currency IS NOT NULL AND u.balances_reset_at IS NULL "
+            + "GROUP BY p.user_id, p.currency";
+    private static final String READ_BALANCES = "SELECT b.user_id, b.currency, b.amount_minor FROM user_balances b "
+            + "JOIN users u ON u.id = b.user_id WHERE b.user_id BETWEEN ? AND ? AND u.balances_reset_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceCache balanceCache;
+    private final Counter rangesCounter;
+    private final Counter paymentsCounter;
+    private final Counter driftsCounter;
+    private final Counter fixedCounter;
+    private final Timer runTimer;
+    private final AtomicLong rangesTotal = new AtomicLong();
+    private final AtomicLong rangesDone = new AtomicLong();
+
+    @Value("${balances.reconciliation.mode:off}")
+    private String startupMode;
+
+    @Value("${balances.reconciliation.users-per-range:1000}")
+    private int usersPerRange;
+
+    @Value("${balances.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${balances.reconciliation.report-dir:${java.io.tmpdir}}")
+    private Path reportDir;
+
+    public BalanceReconciliation(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 BalanceCache balanceCache,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.balanceCache = balanceCache;
+        this.rangesCounter = meterRegistry.counter("balances.reconciliation.ranges");
+        this.paymentsCounter = meterRegistry.counter("balances.reconciliation.payments");
+        this.driftsCounter = meterRegistry.counter("balances.reconciliation.drifts");
+        this.fixedCounter = meterRegistry.counter("balances.reconciliation.fixed");
+        this.runTimer = meterRegistry.timer("balances.reconciliation.duration");
+        meterRegistry.gauge("balances.reconciliation.progress", this,
+                it -> it.rangesTotal.get() == 0 ? 0 : (double) it.rangesDone.get() / it.rangesTotal.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reconcileOnStartup() {
+        if (!"off".equalsIgnoreCase(startupMode)) {
+            reconcile("fix".equalsIgnoreCase(startupMode));
+        }
+    }
+
+    public synchronized ReconciliationReport reconcile(boolean fix) {
+        long startedAt = System.nanoTime();
+        double paymentsBefore = paymentsCounter.count();
+        List<Long> range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM users",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)));
+
+        rangesDone.set(0);
+        rangesTotal.set((range.get(1) - range.get(0)) / usersPerRange + 1);
+        var pool = new ForkJoinPool(parallelism);
+        List<BalanceDrift> drifts;
+        try {
+            drifts = pool.invoke(new RangeTask(range.get(0), range.get(1), fix));
+        } finally {
+            pool.shutdown();
+        }
+
+        long durationNanos = System.nanoTime() - startedAt;
+        runTimer.record(Duration.ofNanos(durationNanos));
+        long payments = (long) (paymentsCounter.count() - paymentsBefore);
+        var report = new ReconciliationReport(fix, rangesTotal.get(), payments, durationNanos / 1_000_000, drifts,
+                writeReport(drifts).toString());
+        log.info("Reconciled balances of users {}..{}: {} payments in {} ms ({} payments/s), {} drifts{}, report: {}",
+                range.get(0), range.get(1), payments, report.getDurationMillis(),
+                payments * 1_000_000_000L / Math.max(durationNanos, 1), drifts.size(), fix ? " fixed" : "",
+                report.getReportFile());
+        return report;
+    }
+
+    private class RangeTask extends RecursiveTask<List<BalanceDrift>> {
+
+        private final long fromUserId;
+        private final long toUserId;
+        private final boolean fix;
+
+        RangeTask(long fromUserId, long toUserId, boolean fix) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.fix = fix;
+        }
+
+        @Override
+        protected List<BalanceDrift> compute() {
+            long ranges = (toUserId - fromUserId) / usersPerRange + 1;
+            if (ranges > 1) {
+                long middle = fromUserId + ranges / 2 * usersPerRange;
+                var upper = new RangeTask(middle, toUserId, fix);
+                upper.fork();
+                List<BalanceDrift> drifts = new ArrayList<>(new RangeTask(fromUserId, middle - 1, fix).compute());
+                drifts.addAll(upper.join());
+                return drifts;
+            }
+            List<BalanceDrift> drifts = reconcileRange(fromUserId, toUserId, fix);
+            rangesCounter.increment();
+            long done = rangesDone.incrementAndGet();
+            if (done % 100 == 0) {
+                log.info("Reconciled {} of {} user ranges", done, rangesTotal.get());
+            }
+            return drifts;
+        }
+    }
+
+    private List<BalanceDrift> reconcileRange(long fromUserId, long toUserId, boolean fix) {
+        Map<UserBalance.Key, Long> expected = new HashMap<>();
+        Set<UserBalance.Key> unreadable = new HashSet<>();
+        jdbcTemplate.query(SUM_PAYMENTS, rs -> {
+            var key = new UserBalance.Key(rs.getLong(1), rs.getString(2));
+            paymentsCounter.increment(rs.getLong(3));
+            try {
+                expected.put(key, toMinorUnits(rs.getBigDecimal(4), key.getCurrency()));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                log.warn("Payments of user {} in {} can't be summed in minor units, skipped: {}",
+                        key.getUserId(), key.getCurrency(), e.toString());
+                unreadable.add(key);
+            }
+        }, fromUserId, toUserId);
+
+        List<UserBalance.Key> mismatched = new ArrayList<>();
+        jdbcTemplate.query(READ_BALANCES, rs -> {
+            var key = new UserBalance.Key(rs.getLong(1), rs.getString(2));
+            if (unreadable.contains(key)) {
+                return;
+            }
+            Long paymentsTotal = expected.remove(key);
+            if (rs.getLong(3) != (paymentsTotal == null ? 0 : paymentsTotal)) {
+                mismatched.add(key);
+            }
+        }, fromUserId, toUserId);
+        mismatched.addAll(expected.keySet());
+
+        List<BalanceDrift> drifts = new ArrayList<>();
+        for (UserBalance.Key key : mismatched) {
+            BalanceDrift drift = recheck(key, fix);
+            if (drift != null) {
+                drifts.add(drift);
+                driftsCounter.increment();
+            }
+        }
+        return drifts;
+    }
+
+    /**
+     * Locks the user row first, in the same order as a personal data update, which resets the
+     * balances after updating it.
+     *
+     * @return the drift of the balance with its row locked, null if it is in line with the payments
+     * or the user's balances have been reset since the range was read
+     */
+    private BalanceDrift recheck(UserBalance.Key key, boolean fix) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Boolean> reset = jdbcTemplate.queryForList(
+                        "SELECT balances_reset_at IS NOT NULL FROM users WHERE id = ? FOR UPDATE", Boolean.class, key.getUserId());
+                if (reset.isEmpty() || reset.get(0)) {
+                    return null;
+                }
+                List<Long> stored = jdbcTemplate.queryForList(
+                        "SELECT amount_minor FROM user_balances WHERE user_id = ? AND currency = ? FOR UPDATE",
+                        Long.class, key.getUserId(), key.getCurrency());
+                BigDecimal sum = jdbcTemplate.queryForObject(
+                        "SELECT SUM(amount) FROM payments WHERE user_id = ? AND currency = ?",
+                        BigDecimal.class, key.getUserId(), key.getCurrency());
+                long paymentsTotal = sum == null ? 0 : toMinorUnits(sum, key.getCurrency());
+                Long storedBalance = stored.isEmpty() ? null : stored.get(0);
+                if (storedBalance != null ? storedBalance == paymentsTotal : paymentsTotal == 0) {
+                    return null;
+                }
+
+                if (fix) {
+                    if (storedBalance != null) {
+                        jdbcTemplate.update("UPDATE user_balances SET amount_minor = ? WHERE user_id = ? AND currency = ?",
+                                paymentsTotal, key.getUserId(), key.getCurrency());
+                    } else {
+                        jdbcTemplate.update("INSERT INTO user_balances (user_id, currency, amount_minor) VALUES (?, ?, ?)",
+                                key.getUserId(), key.getCurrency(), paymentsTotal);
+                    }
+                    balanceCache.refreshAfterCommit(key.getUserId());
+                    fixedCounter.increment();
+                }
+                return new BalanceDrift(key.getUserId(), key.getCurrency(),
+                        storedBalance == null ? null : toAmount(storedBalance, key.getCurrency()),
+                        toAmount(paymentsTotal, key.getCurrency()), fix);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Balance of user {} in {} was opened during reconciliation, skipped", key.getUserId(), key.getCurrency());
+            return null;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("Payments of user {} in {} can't be summed in minor units, skipped: {}",
+                    key.getUserId(), key.getCurrency(), e.toString());
+            return null;
+        }
+    }
+
+    private Path writeReport(List<BalanceDrift> drifts) {
+        Path file = reportDir.resolve("balance-reconciliation-" + Instant.now().toEpochMilli() + ".ndjson");
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator generator = JsonConverter.mapper.getFactory().createGenerator(out)) {
+            for (BalanceDrift drift : drifts) {
+                generator.writeObject(drift);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.lemfi.qa.service;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers which payment an {@code Idempotency-Key} produced, per user, so retries are answered
+ * from memory. Entries are bounded by size and expire after a TTL; past that, the unique
+ * constraint on {@code payments (user_id, idempotency_key)} still rejects the duplicate.
+ * Hit and miss counts are published as {@code cache.gets} with {@code cache=payments.idempotency}.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyCache {
+
+    private final Cache<String, Long> paymentIds;
+
+    public IdempotencyKeyCache(MeterRegistry meterRegistry,
+                               @Value("${payments.idempotency.cache.max-size:100000}") long maxSize,
+                               @Value("${payments.idempotency.cache.ttl:24h}") Duration ttl) {
+        this.paymentIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, paymentIds, "payments.idempotency");
+    }
+
+    public Long getPaymentId(Long userId, String idempotencyKey) {
+        return paymentIds.getIfPresent(key(userId, idempotencyKey));
+    }
+
+    public void putPaymentId(Long userId, String idempotencyKey, Long paymentId) {
+        paymentIds.put(key(userId, idempotencyKey), paymentId);
+    }
+
+    /**
+     * Forgets every key of one user, for when the user's payments are removed behind the application's
+     * back. Walks the whole cache, so it is not meant for the request path.
+     */
+    public void invalidateUser(Long userId) {
+        String prefix = userId + ":";
+        paymentIds.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    void invalidateAll() {
+        paymentIds.invalidateAll();
+    }
+
+    private static String key(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+}
@@ -1,17 +1,47 @@
 package com.lemfi.qa.service;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.dto.PaymentDTO;
 import com.lemfi.qa.domain.dto.TransactionRequestDTO;
 import com.lemfi.qa.domain.entity.Payment;
+import com.lemfi.qa.domain.model.AddFundsBatchItemResult;
+import com.lemfi.qa.domain.model.AddFundsBatchResponse;
+import com.lemfi.qa.domain.model.PaymentCursor;
+import com.lemfi.qa.domain.model.PaymentFilter;
+import com.lemfi.qa.domain.model.PaymentPage;
+import com.lemfi.qa.repository.PaymentBatchRepository;
 import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.PaymentSearchRepository;
+import com.lemfi.qa.repository.UserBalanceRepository;
 import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.validation.TransactionRequestValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.lemfi.qa.domain.model.TransactionType.FUNDING;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
 import static com.lemfi.qa.mapper.PaymentEntityMapper.transactionReqToPaymentEntity;
 
 
@@ -20,22 +50,251 @@ import static com.lemfi.qa.mapper.PaymentEntityMapper.transactionReqToPaymentEnt
 @RequiredArgsConstructor
 public class PaymentService {
 
-    private final UserService userService;
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
     private final PaymentRepository paymentRepository;
+    private final PaymentBatchRepository paymentBatchRepository;
+    private final PaymentSearchRepository paymentSearchRepository;
     private final UserRepository userRepository;
+    private final UserBalanceRepository userBalanceRepository;
+    private final AuthenticationHandler authenticationHandler;
+    private final TransactionRequestValidator transactionRequestValidator;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final BalanceCache balanceCache;
+    private final PaymentSummaryService paymentSummaryService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${payments.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public Optional<Long> handleAddFundsPayment(TransactionRequestDTO transactionRequestDTO) {
-        var user = userService.getCurrentUser();
+        return handleAddFundsPayment(transactionRequestDTO, null);
+    }
+
+    /**
+     * Credits the current user once per {@code idempotencyKey}. A retry with a known key returns
+     * the original payment id from {@link IdempotencyKeyCache} without touching the database;
+     * once the cache entry is gone, the unique constraint on the key rolls the retry back and the
+     * original id is read from the payments table instead.
+     */
+    public Optional<Long> handleAddFundsPayment(TransactionRequestDTO transactionRequestDTO, String idempotencyKey) {
+        Long userId = authenticationHandler.getCurrentUserId();
+        if (idempotencyKey == null) {
+            return credit(userId, transactionRequestDTO, null);
+        }
+
+        Long knownPaymentId = idempotencyKeyCache.getPaymentId(userId, idempotencyKey);
+        if (knownPaymentId != null) {
+            log.info("Add funds retry for user {} answered from cache, payment id: {}", userId, knownPaymentId);
+            return Optional.of(knownPaymentId);
+        }
+
+        Optional<Long> paymentId;
+        try {
+            paymentId = credit(userId, transactionRequestDTO, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            paymentId = paymentRepository.findIdByUserIdAndIdempotencyKey(userId, idempotencyKey);
+            if (paymentId.isEmpty()) {
+                throw e;
+            }
+            log.info("Add funds retry for user {} matched stored payment id: {}", userId, paymentId.get());
+        }
+
+        paymentId.ifPresent(id -> idempotencyKeyCache.putPaymentId(userId, idempotencyKey, id));
+        return paymentId;
+    }
 
-        return user.map(maybeUser -> {
-            Payment payment = transactionReqToPaymentEntity(transactionRequestDTO, FUNDING, maybeUser);
-            maybeUser.setBalance(maybeUser.getBalance().add(payment.getAmount()));
+    /**
+     * Credits the user and records the payment in one transaction: an atomic
+     * {@code amount_minor = amount_minor + ?} UPDATE of the balance in the payment's currency
+     * followed by the payment INSERT and the update of its monthly summary. The user row is never
+     * selected, the payment only references it by id.
+     */
+    private Optional<Long> credit(Long userId, TransactionRequestDTO transactionRequestDTO, String idempotencyKey) {
+        String currency = transactionRequestDTO.getAmount().getCurrency();
+        long amountMinor = toMinorUnits(transactionRequestDTO.getAmount().getAmount(), currency);
+        return Optional.ofNullable(inCreditTransaction(userId, () -> {
+            creditBalance(userId, currency, amountMinor);
 
-            paymentRepository.save(payment);
-            userRepository.save(maybeUser);
+            Payment payment = transactionReqToPaymentEntity(transactionRequestDTO, FUNDING, userRepository.getById(userId));
+            payment.setIdempotencyKey(idempotencyKey);
+            paymentRepository.saveAndFlush(payment);
+            paymentSummaryService.record(userId, FUNDING, transactionRequestDTO);
 
             return payment.getId();
+        }));
+    }
+
+    private void creditBalance(Long userId, String currency, long amountMinor) {
+        if (userBalanceRepository.credit(userId, currency, amountMinor) == 0) {
+            try {
+                userBalanceRepository.open(userId, currency, amountMinor);
+            } catch (DataIntegrityViolationException e) {
+                throw new BalanceOpenConflict(e);
+            }
+        }
+        balanceCache.refreshAfterCommit(userId);
+    }
+
+    /**
+     * Runs a credit in a transaction. The first credit in a currency opens the balance row; when
+     * two of them race, the loser fails on the primary key and is run once more, now finding the
+     * row. Opening a balance for a user that does not exist fails on the foreign key and
+     * returns null. Any other constraint violation, such as a reused idempotency key, is thrown
+     * on the first failure.
+     */
+    private <T> T inCreditTransaction(Long userId, Supplier<T> credit) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return transactionTemplate.execute(status -> credit.get());
+        } catch (BalanceOpenConflict e) {
+            if (!userRepository.existsById(userId)) {
+                log.warn("Add funds rejected, user {} not found", userId);
+                return null;
+            }
+            return transactionTemplate.execute(status -> credit.get());
+        }
+    }
+
+    /**
+     * One keyset page of the current user's payments, oldest first.
+     */
+    public PaymentPage getPayments(String cursor, int limit, boolean includeRawResponse) {
+        return getPayments(cursor, limit, includeRawResponse, PaymentFilter.NONE);
+    }
+
+    /**
+     * Filtered page; in booking date order when {@code filter} has booking dates.
+     */
+    public PaymentPage getPayments(String cursor, int limit, boolean includeRawResponse, PaymentFilter filter) {
+        Long userId = authenticationHandler.getCurrentUserId();
+        if (filter.hasBookingDates()) {
+            var after = cursor == null ? null : PaymentCursor.decodeBookingPosition(cursor);
+            List<PaymentDTO> payments = paymentSearchRepository.findPageByBookingDate(userId, after, filter,
+                    includeRawResponse, limit + 1);
+            if (payments.size() <= limit) {
+                return new PaymentPage(payments, null);
+            }
+            List<PaymentDTO> items = payments.subList(0, limit);
+            PaymentDTO last = items.get(limit - 1);
+            return new PaymentPage(items, PaymentCursor.encode(last.getBookingDate(), last.getId()));
+        }
+
+        long afterId = cursor == null ? 0 : PaymentCursor.decode(cursor);
+        List<PaymentDTO> payments;
+        if (!filter.isEmpty()) {
+            payments = paymentSearchRepository.findPage(userId, afterId, filter, includeRawResponse, limit + 1);
+        } else {
+            var pageable = PageRequest.of(0, limit + 1);
+            payments = includeRawResponse
+                    ? paymentRepository.findPageWithRawResponseByUserId(userId, afterId, pageable)
+                    : paymentRepository.findPageByUserId(userId, afterId, pageable);
+        }
+
+        if (payments.size() <= limit) {
+            return new PaymentPage(payments, null);
+        }
+        List<PaymentDTO> items = payments.subList(0, limit);
+        return new PaymentPage(items, PaymentCursor.encode(items.get(limit - 1).getId()));
+    }
+
+    /**
+     * Writes every payment of the user to {@code out} as newline-delimited JSON, oldest first.
+     * Rows are read through a forward-only cursor as plain DTOs and written one at a time, so
+     * memory use does not grow with the size of the history.
+     */
+    public void exportPayments(Long userId, boolean includeRawResponse, OutputStream out) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PaymentDTO> payments = includeRawResponse
+                    ? paymentRepository.streamWithRawResponseByUserId(userId)
+                    : paymentRepository.streamByUserId(userId);
+                 JsonGenerator generator = JsonConverter.mapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int written = 0;
+                for (Iterator<PaymentDTO> it = payments.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                    generator.writeRaw('\n');
+                    if (++written % EXPORT_FLUSH_ROWS == 0) {
+                        generator.flush();
+                    }
+                }
+                log.info("Exported {} payments for user {}", written, userId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         });
     }
 
+    /**
+     * Imports many funding rows for the current user. Requests are validated one by one and
+     * written in chunks: each chunk is a single transaction holding one balance UPDATE per
+     * currency with the chunk total, one JDBC batch INSERT of its payments and one summary UPDATE
+     * per booking month and currency. Balances and summaries are updated in a fixed order, so
+     * concurrent imports lock them in the same order. A failed chunk is rolled back and reported
+     * per item without affecting chunks already committed.
+     */
+    public AddFundsBatchResponse handleAddFundsBatch(List<TransactionRequestDTO> requests) {
+        Long userId = authenticationHandler.getCurrentUserId();
+        var results = new AddFundsBatchItemResult[requests.size()];
+
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, requests.size());
+
+            List<Integer> acceptedIndexes = new ArrayList<>(to - from);
+            List<TransactionRequestDTO> accepted = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                var request = requests.get(i);
+                var validationStatus = transactionRequestValidator.validate(request);
+                if (validationStatus.isValid()) {
+                    acceptedIndexes.add(i);
+                    accepted.add(request);
+                } else {
+                    results[i] = new AddFundsBatchItemResult(i, "FAIL", null, validationStatus.getMessage().getMessage());
+                }
+            }
+            if (accepted.isEmpty()) {
+                continue;
+            }
+
+            try {
+                Map<String, Long> deltas = new TreeMap<>();
+                for (TransactionRequestDTO request : accepted) {
+                    String currency = request.getAmount().getCurrency();
+                    deltas.merge(currency, toMinorUnits(request.getAmount().getAmount(), currency), Math::addExact);
+                }
+                long[] paymentIds = inCreditTransaction(userId, () -> {
+                    deltas.forEach((currency, delta) -> creditBalance(userId, currency, delta));
+                    long[] ids = paymentBatchRepository.insertPayments(userId, FUNDING, accepted);
+                    paymentSummaryService.recordAll(userId, FUNDING, accepted);
+                    return ids;
+                });
+                for (int i = 0; i < acceptedIndexes.size(); i++) {
+                    int index = acceptedIndexes.get(i);
+                    results[index] = paymentIds == null
+                            ? new AddFundsBatchItemResult(index, "FAIL", null, "User not found")
+                            : new AddFundsBatchItemResult(index, "SUCCESS", paymentIds[i], "Payment imported");
+                }
+            } catch (RuntimeException e) {
+                log.warn("Add funds batch chunk [{}, {}) failed for user {}", from, to, userId, e);
+                for (int index : acceptedIndexes) {
+                    results[index] = new AddFundsBatchItemResult(index, "FAIL", null, "Something went wrong");
+                }
+            }
+        }
+
+        int imported = (int) Arrays.stream(results).filter(it -> it.getPaymentId() != null).count();
+        return new AddFundsBatchResponse(imported, results.length - imported, Arrays.asList(results));
+    }
+
+    /**
+     * The INSERT of a balance row failed: another credit opened it first, or the user is gone.
+     */
+    private static final class BalanceOpenConflict extends DataIntegrityViolationException {
+        private BalanceOpenConflict(DataIntegrityViolationException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
 }
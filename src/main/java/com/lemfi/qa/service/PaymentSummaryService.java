@@ -0,0 +1,76 @@
+package com.lemfi.qa.service;
+
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.PaymentSummary;
+import com.lemfi.qa.domain.model.PaymentSummaryResponse;
+import com.lemfi.qa.domain.model.TransactionType;
+import com.lemfi.qa.repository.PaymentSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
+
+/**
+ * Maintains and reads the per month, type and currency payment totals in {@link PaymentSummary}.
+ * The record methods must run in the transaction that inserts the payments.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentSummaryService {
+
+    private final PaymentSummaryRepository paymentSummaryRepository;
+
+    public PaymentSummaryResponse getSummary(Long userId) {
+        List<PaymentSummaryResponse.MonthlyTotal> totals =
+                paymentSummaryRepository.findByUserIdOrderByBookingMonthAscTypeAscCurrencyAsc(userId).stream()
+                        .map(it -> new PaymentSummaryResponse.MonthlyTotal(YearMonth.from(it.getBookingMonth()).toString(),
+                                it.getType(), it.getCurrency(), it.getPaymentCount(),
+                                toAmount(it.getAmountMinor(), it.getCurrency())))
+                        .collect(Collectors.toList());
+        return new PaymentSummaryResponse(totals);
+    }
+
+    public void record(Long userId, TransactionType type, TransactionRequestDTO request) {
+        String currency = request.getAmount().getCurrency();
+        add(userId, type, currency, bookingMonth(request), 1, toMinorUnits(request.getAmount().getAmount(), currency));
+    }
+
+    /**
+     * Records many payments with one statement per month and currency they fall into. Rows are
+     * updated in month and currency order, so concurrent imports lock them in the same order.
+     */
+    public void recordAll(Long userId, TransactionType type, List<TransactionRequestDTO> requests) {
+        Map<LocalDate, Map<String, long[]>> totals = new TreeMap<>();
+        for (TransactionRequestDTO request : requests) {
+            String currency = request.getAmount().getCurrency();
+            long[] total = totals.computeIfAbsent(bookingMonth(request), month -> new TreeMap<>())
+                    .computeIfAbsent(currency, it -> new long[2]);
+            total[0]++;
+            total[1] = Math.addExact(total[1], toMinorUnits(request.getAmount().getAmount(), currency));
+        }
+        totals.forEach((month, byCurrency) -> byCurrency.forEach(
+                (currency, total) -> add(userId, type, currency, month, total[0], total[1])));
+    }
+
+    private void add(Long userId, TransactionType type, String currency, LocalDate month, long count, long amountMinor) {
+        if (paymentSummaryRepository.add(userId, type, currency, month, count, amountMinor) == 0) {
+            paymentSummaryRepository.open(userId, type.ordinal(), currency, month, count, amountMinor);
+        }
+    }
+
+    private static LocalDate bookingMonth(TransactionRequestDTO request) {
+        return request.getBookingDate().withDayOfMonth(1);
+    }
+
+}
@@ -5,13 +5,18 @@ import com.lemfi.qa.AuthenticationHandler;
 import com.lemfi.qa.domain.dto.RegistrationRequestDTO;
 import com.lemfi.qa.domain.dto.UpdatePersonalDataRequestDTO;
 import com.lemfi.qa.domain.dto.UserDTO;
+import com.lemfi.qa.domain.entity.User;
 import com.lemfi.qa.mapper.UserDTOMapper;
+import com.lemfi.qa.repository.UserBalanceRepository;
 import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.validation.RegisteredEmailFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
 
 import static com.lemfi.qa.mapper.UserDTOMapper.toUserDTO;
@@ -24,22 +29,40 @@ import static com.lemfi.qa.mapper.UserEntityMapper.registrationReqToUserEntity;
 public class RegistrationService {
 
     private final UserRepository userRepository;
+    private final UserBalanceRepository userBalanceRepository;
     private final AuthenticationHandler authenticationHandler;
+    private final BalanceCache balanceCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
+    /**
+     * Stores the user; empty if the email was registered concurrently and the unique
+     * constraint rejected the insert.
+     */
     public Optional<UserDTO> registerUser(RegistrationRequestDTO registrationRequestDTO) {
-        var user = userRepository.save(registrationReqToUserEntity(registrationRequestDTO));
+        User user;
+        try {
+            user = userRepository.saveAndFlush(registrationReqToUserEntity(registrationRequestDTO));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Email already registered: {}", registrationRequestDTO.getEmail());
+            return Optional.empty();
+        }
+        registeredEmailFilter.registered(user.getEmail());
         log.info("Registering user with email: {}", user.getEmail());
         return Optional.of(toUserDTO(user));
     }
 
+    @Transactional
     public Optional<UserDTO> updatePersonalData(UpdatePersonalDataRequestDTO updatePersonalDataRequestDTO) {
         var user = userRepository.findById(authenticationHandler.getCurrentUserId());
         user.ifPresent(it -> {
             it.setFirstName(updatePersonalDataRequestDTO.getFirstName());
             it.setSurname(updatePersonalDataRequestDTO.getSurname());
             it.setPersonalId(updatePersonalDataRequestDTO.getPersonalId());
-            it.setBalance(BigDecimal.ZERO);
-            userRepository.save(it);
+            it.setBalancesResetAt(Instant.now());
+            // flushed first, so the user row is locked before the balances, as BalanceReconciliation does
+            userRepository.saveAndFlush(it);
+            userBalanceRepository.deleteByUserId(it.getId());
+            balanceCache.refreshAfterCommit(it.getId());
         });
 
         return Optional.ofNullable(user.map(UserDTOMapper::toUserDTO)
@@ -3,13 +3,18 @@ package com.lemfi.qa.service;
 
 import com.lemfi.qa.AuthenticationHandler;
 import com.lemfi.qa.domain.entity.User;
+import com.lemfi.qa.domain.model.BalanceResponse;
 import com.lemfi.qa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
 
 
 @Slf4j
@@ -19,14 +24,19 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final AuthenticationHandler authenticationHandler;
+    private final BalanceCache balanceCache;
 
     public Optional<User> getCurrentUser() {
         Long userId = authenticationHandler.getCurrentUserId();
         return userRepository.findById(userId);
     }
 
-    public Optional<BigDecimal> getUserBalance() {
-        return getCurrentUser().map(User::getBalance);
+    public BalanceResponse getUserBalance() {
+        var balances = new TreeMap<String, BigDecimal>();
+        for (Map.Entry<String, Long> balance : balanceCache.getBalances(authenticationHandler.getCurrentUserId()).entrySet()) {
+            balances.put(balance.getKey(), toAmount(balance.getValue(), balance.getKey()));
+        }
+        return new BalanceResponse(balances);
     }
 
 }
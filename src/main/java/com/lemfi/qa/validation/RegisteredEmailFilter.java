@@ -0,0 +1,54 @@
+package com.lemfi.qa.validation;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * In-memory {@link BloomFilter} of registered emails, loaded from {@code users} at startup and
+ * fed by every successful registration. A negative answer is definite, so sign-up of a new
+ * email skips the existence query; a positive one still has to be confirmed in the database.
+ * Emails registered by another node are not seen here, which is why the unique constraint on
+ * {@code users.email} remains the final check.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RegisteredEmailFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilter emails;
+
+    public RegisteredEmailFilter(JdbcTemplate jdbcTemplate,
+                                 @Value("${registration.email-filter.expected-users:1000000}") long expectedUsers,
+                                 @Value("${registration.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void load() {
+        long[] loaded = {0};
+        jdbcTemplate.query("SELECT email FROM users WHERE email IS NOT NULL", rs -> {
+            emails.put(rs.getString(1));
+            loaded[0]++;
+        });
+        log.info("Loaded {} registered emails into a {} KB filter", loaded[0], emails.sizeInBytes() >> 10);
+    }
+
+    public boolean mightBeRegistered(String email) {
+        return email != null && emails.mightContain(email);
+    }
+
+    public void registered(String email) {
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+
+}
@@ -14,12 +14,17 @@ public class RegistrationRequestValidator {
     final
     UserRepository userRepository;
 
-    public RegistrationRequestValidator(UserRepository userRepository) {
+    final
+    RegisteredEmailFilter registeredEmailFilter;
+
+    public RegistrationRequestValidator(UserRepository userRepository, RegisteredEmailFilter registeredEmailFilter) {
         this.userRepository = userRepository;
+        this.registeredEmailFilter = registeredEmailFilter;
     }
 
     public ValidationStatus validate(RegistrationRequestDTO requestDTO) {
-        if (userRepository.findByEmail(requestDTO.getEmail()).isPresent()) {
+        String email = requestDTO.getEmail();
+        if (registeredEmailFilter.mightBeRegistered(email) && userRepository.existsByEmail(email)) {
             return new ValidationStatus(false, new Message("fail", "Email already exists."));
         }
 
@@ -0,0 +1,93 @@
+package com.lemfi.qa.validation;
+
+
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.model.Message;
+import com.lemfi.qa.mapper.MinorUnitMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Checks the same rules that are declared as constraints on {@link TransactionRequestDTO},
+ * for callers that validate many requests at once and need a result per request.
+ */
+@Slf4j
+@Component
+public class TransactionRequestValidator {
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    // balances are longs in minor units; 18 digits always fit
+    private static final int MAX_MINOR_UNIT_DIGITS = 18;
+
+    public ValidationStatus validate(TransactionRequestDTO requestDTO) {
+        if (requestDTO == null) {
+            return fail("Body is required");
+        }
+        if (isEmpty(requestDTO.getAccountNumber())) {
+            return fail("Account number is required");
+        }
+        if (isEmpty(requestDTO.getAccountHolderFullName())) {
+            return fail("Account holder full name is required");
+        }
+        if (isEmpty(requestDTO.getAccountHolderPersonalId())) {
+            return fail("Account holder personal ID is required");
+        }
+        if (requestDTO.getTransactionType() == null) {
+            return fail("Transaction type is required");
+        }
+        if (isEmpty(requestDTO.getInvestorId())) {
+            return fail("Investor ID is required");
+        }
+        if (requestDTO.getAmount() == null || requestDTO.getAmount().getAmount() == null) {
+            return fail("Amount is required");
+        }
+        if (isEmpty(requestDTO.getAmount().getCurrency())) {
+            return fail("Currency is required");
+        }
+        int fractionDigits = fractionDigits(requestDTO.getAmount().getCurrency());
+        if (fractionDigits < 0) {
+            return fail("Currency must be an ISO 4217 code");
+        }
+        if (requestDTO.getAmount().getAmount().stripTrailingZeros().scale() > fractionDigits) {
+            return fail("Amount must have at most " + fractionDigits + " decimal places");
+        }
+        if (requestDTO.getAmount().getAmount().precision() - requestDTO.getAmount().getAmount().scale()
+                + fractionDigits > MAX_MINOR_UNIT_DIGITS) {
+            return fail("Amount is too large");
+        }
+        if (requestDTO.getAmount().getAmount().compareTo(MIN_AMOUNT) < 0) {
+            return fail("Amount must be greater than or equal to 0.01");
+        }
+        if (requestDTO.getBookingDate() == null) {
+            return fail("Booking date is required");
+        }
+        if (requestDTO.getBookingDate().isAfter(LocalDate.now())) {
+            return fail("Booking date must be in the past or present");
+        }
+
+        return new ValidationStatus(true);
+    }
+
+    /**
+     * Fraction digits of an ISO 4217 code that has minor units, -1 for anything else.
+     */
+    private static int fractionDigits(String currency) {
+        try {
+            return MinorUnitMapper.fractionDigits(currency);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static ValidationStatus fail(String message) {
+        return new ValidationStatus(false, new Message("FAIL", message));
+    }
+
+}
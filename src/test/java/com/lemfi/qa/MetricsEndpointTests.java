@@ -0,0 +1,92 @@
+package com.lemfi.qa;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Operations")
+@Feature("Metrics")
+@AutoConfigureMetrics
+@SpringBootTest(classes = HomeworkApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsEndpointTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    private String scrape;
+
+    @BeforeEach
+    void callApiAndScrape() {
+        ResponseEntity<String> signUp = restTemplate.postForEntity("/public/sign-up",
+                Map.of("email", uniqueEmail("metrics"), "password", "secret"), String.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.put(HttpHeaders.COOKIE, List.of(signUp.getHeaders().getFirst(HttpHeaders.SET_COOKIE).split(";")[0]));
+
+        restTemplate.exchange("/api/add-funds", HttpMethod.POST, new HttpEntity<>(Map.of(
+                "accountNumber", "123456789012",
+                "accountHolderFullName", "Test Investor",
+                "accountHolderPersonalId", "123456789",
+                "transactionType", "FUNDING",
+                "investorId", "1000000001",
+                "amount", Map.of("currency", "EUR", "amount", "10.00"),
+                "bookingDate", LocalDate.now().toString()), headers), String.class);
+        restTemplate.exchange("/api/payments", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        restTemplate.exchange("/api/payments?accountNumber=123456789012", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        restTemplate.exchange("/api/balance", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+    }
+
+    @Test
+    @Story("Prometheus scrape")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Request latency percentiles are published per controller method")
+    void requestLatencyPerHandler() {
+        assertAll(
+                () -> assertHasSeries("http_server_requests_seconds{", "handler=\"PaymentController.addFunds\"", "quantile=\"0.99\""),
+                () -> assertHasSeries("http_server_requests_seconds{", "handler=\"PaymentController.getPayments\"", "quantile=\"0.5\""),
+                () -> assertHasSeries("http_server_requests_seconds{", "handler=\"UserDataController.getBalance\"", "quantile=\"0.95\""),
+                () -> assertHasSeries("http_server_requests_seconds_bucket{", "handler=\"AuthenticationController.")
+        );
+    }
+
+    @Test
+    @Story("Prometheus scrape")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Repository calls, JSON serialization and sessions are published")
+    void repositorySerializationAndSessions() {
+        assertAll(
+                () -> assertHasSeries("spring_data_repository_invocations_seconds_count{", "method=\"findPageByUserId\""),
+                () -> assertHasSeries("jdbc_repository_invocations_seconds_count{", "method=\"findPage\""),
+                () -> assertHasSeries("http_json_serialization_seconds{", "quantile=\"0.99\""),
+                () -> assertHasSeries("tomcat_sessions_active_current_sessions")
+        );
+    }
+
+    private String assertHasSeries(String prefix, String... labels) {
+        return scrape.lines()
+                .filter(line -> line.startsWith(prefix) && List.of(labels).stream().allMatch(line::contains))
+                .findFirst()
+                .orElseGet(() -> fail("No " + prefix + " series with " + List.of(labels)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.lemfi.qa;
+
+import com.lemfi.qa.controller.SqlStatementBudget;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Epic("Operations")
+@Feature("SQL statement budget")
+@SpringBootTest(classes = HomeworkApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "sql.statements.debug=true")
+class SqlStatementBudgetTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    private HttpHeaders session;
+
+    @BeforeEach
+    void signUp() {
+        ResponseEntity<String> signUp = restTemplate.postForEntity("/public/sign-up",
+                Map.of("email", uniqueEmail("statements"), "password", "secret"), String.class);
+        session = new HttpHeaders();
+        session.put(HttpHeaders.COOKIE, List.of(signUp.getHeaders().getFirst(HttpHeaders.SET_COOKIE).split(";")[0]));
+        assertWithinBudget(signUp);
+    }
+
+    @Test
+    @Story("Budget header")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Every endpoint reports its statements and stays within budget")
+    void endpointsStayWithinBudget() {
+        assertWithinBudget(addFunds());
+        assertWithinBudget(get("/api/payments"));
+        assertWithinBudget(get("/api/payments?accountNumber=123456789012"));
+        assertWithinBudget(get("/api/payments/summary"));
+        assertWithinBudget(get("/api/balance"));
+        assertWithinBudget(restTemplate.exchange("/api/personal-data", HttpMethod.POST, new HttpEntity<>(Map.of(
+                "firstName", "Test", "surname", "Investor", "personalId", "123456789"), session), String.class));
+    }
+
+    @Test
+    @Story("N+1 guard")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Listing payments costs the same number of statements for one payment as for ten")
+    void paymentListDoesNotGrowWithPayments() {
+        addFunds();
+        int forOne = assertWithinBudget(get("/api/payments?include=rawResponse"));
+        for (int i = 0; i < 9; i++) {
+            addFunds();
+        }
+        int forTen = assertWithinBudget(get("/api/payments?include=rawResponse"));
+
+        assertEquals(forOne, forTen, "Statements per page must not depend on the number of payments");
+    }
+
+    private ResponseEntity<String> addFunds() {
+        return restTemplate.exchange("/api/add-funds", HttpMethod.POST, new HttpEntity<>(Map.of(
+                "accountNumber", "123456789012",
+                "accountHolderFullName", "Test Investor",
+                "accountHolderPersonalId", "123456789",
+                "transactionType", "FUNDING",
+                "investorId", "1000000001",
+                "amount", Map.of("currency", "EUR", "amount", "10.00"),
+                "bookingDate", LocalDate.now().toString()), session), String.class);
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(session), String.class);
+    }
+
+    private static int assertWithinBudget(ResponseEntity<String> response) {
+        String count = response.getHeaders().getFirst(SqlStatementBudget.COUNT_HEADER);
+        String budget = response.getHeaders().getFirst(SqlStatementBudget.BUDGET_HEADER);
+        assertNotNull(count, "Response must report its SQL statements");
+        assertNotNull(budget, "Response must report its SQL statement budget");
+        log.info("{} SQL statements, budget {}", count, budget);
+        assertTrue(Integer.parseInt(count) <= Integer.parseInt(budget),
+                "Response took " + count + " SQL statements, budget is " + budget);
+        return Integer.parseInt(count);
+    }
+}
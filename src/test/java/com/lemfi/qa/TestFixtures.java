@@ -0,0 +1,80 @@
+package com.lemfi.qa;
+
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.User;
+import com.lemfi.qa.domain.model.TransactionType;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.UserRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Requests and users shared by the Spring test classes, the API suite fixtures and the JMH benchmarks: a valid
+ * add-funds request and a user whose email no other test has used.
+ */
+public final class TestFixtures {
+
+    public static final String PASSWORD = "secret";
+
+    private TestFixtures() {
+    }
+
+    public static TransactionRequestDTO transactionRequest(String amount) {
+        return transactionRequest(amount, "EUR");
+    }
+
+    public static TransactionRequestDTO transactionRequest(String amount, String currency) {
+        return transactionRequest(amount, currency, LocalDate.now());
+    }
+
+    public static TransactionRequestDTO transactionRequest(String amount, String currency, LocalDate bookingDate) {
+        return transactionRequest(new BigDecimal(amount), currency, bookingDate);
+    }
+
+    public static TransactionRequestDTO transactionRequest(BigDecimal amount) {
+        return transactionRequest(amount, "EUR", LocalDate.now());
+    }
+
+    public static TransactionRequestDTO transactionRequest(BigDecimal value, String currency, LocalDate bookingDate) {
+        var amount = new TransactionRequestDTO.AmountDTO();
+        amount.setCurrency(currency);
+        amount.setAmount(value);
+
+        var request = new TransactionRequestDTO();
+        request.setAccountNumber("123456789012");
+        request.setAccountHolderFullName("Test Investor");
+        request.setAccountHolderPersonalId("123456789");
+        request.setTransactionType(TransactionType.FUNDING);
+        request.setInvestorId("1000000001");
+        request.setAmount(amount);
+        request.setBookingDate(bookingDate);
+        return request;
+    }
+
+    public static String uniqueEmail(String prefix) {
+        return prefix + "-" + System.nanoTime() + "@lemfi.test";
+    }
+
+    /**
+     * Saves a user with a {@link #uniqueEmail} and {@link #PASSWORD}.
+     *
+     * @return the user's id
+     */
+    public static Long saveUser(UserRepository userRepository, String emailPrefix) {
+        var user = new User();
+        user.setEmail(uniqueEmail(emailPrefix));
+        user.setPassword(PASSWORD);
+        return userRepository.save(user).getId();
+    }
+
+    /**
+     * Every payment of the user, oldest first, with the raw response.
+     */
+    public static List<PaymentDTO> paymentsOf(PaymentRepository paymentRepository, Long userId) {
+        return paymentRepository.findPageWithRawResponseByUserId(userId, 0L, Pageable.unpaged());
+    }
+}
@@ -0,0 +1,94 @@
+package com.lemfi.qa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Authentication")
+@Feature("Stateless token mode")
+@SpringBootTest(classes = HomeworkApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"auth.mode=token", "auth.token.secret=test-secret"})
+class TokenAuthenticationTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    AuthTokenSigner authTokenSigner;
+
+    @Test
+    @Story("Sign-up")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Sign-up returns a token that authenticates /api/** without a session")
+    void signUpTokenAuthenticatesWithoutSession() {
+        ResponseEntity<JsonNode> signUp = restTemplate.postForEntity("/public/sign-up",
+                Map.of("email", uniqueEmail("token"), "password", "secret"), JsonNode.class);
+        String token = signUp.getBody().path("token").asText(null);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<String> payments = restTemplate.exchange("/api/payments", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertAll(
+                () -> assertEquals(200, signUp.getStatusCodeValue()),
+                () -> assertNotNull(token, "Sign-up must return a token"),
+                () -> assertNull(signUp.getHeaders().getFirst(HttpHeaders.SET_COOKIE), "Sign-up must not open a session"),
+                () -> assertEquals(200, payments.getStatusCodeValue(), "Token must authenticate /api/**"),
+                () -> assertNull(payments.getHeaders().getFirst(HttpHeaders.SET_COOKIE), "API call must not open a session")
+        );
+    }
+
+    @Test
+    @Story("Rejection")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Missing or tampered tokens are rejected")
+    void missingOrTamperedTokenIsRejected() {
+        String token = authTokenSigner.issue(1L);
+        String tampered = authTokenSigner.issue(2L).split("\\.")[0] + "." + token.split("\\.")[1];
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tampered);
+
+        assertEquals(401, restTemplate.getForEntity("/api/payments", String.class).getStatusCodeValue());
+        assertEquals(401, restTemplate.exchange("/api/payments", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class).getStatusCodeValue());
+    }
+
+    @Test
+    @Story("Rejection")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Expired tokens and tokens from another secret are rejected")
+    void expiredOrForeignTokenIsRejected() {
+        Clock issuedAt = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        Clock afterTtl = Clock.offset(issuedAt, Duration.ofHours(1));
+        String token = new AuthTokenSigner("test-secret", Duration.ofHours(1), issuedAt).issue(7L);
+
+        assertEquals(7L, new AuthTokenSigner("test-secret", Duration.ofHours(1), issuedAt).verify(token).orElseThrow());
+        assertTrue(new AuthTokenSigner("test-secret", Duration.ofHours(1), afterTtl).verify(token).isEmpty());
+        assertTrue(new AuthTokenSigner("other-secret", Duration.ofHours(1), issuedAt).verify(token).isEmpty());
+        assertTrue(authTokenSigner.verify("not-a-token").isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package com.lemfi.qa.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.PASSWORD;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Get payments")
+@SpringBootTest(classes = HomeworkApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PaymentControllerPagingTests {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    @Story("Cursor pagination")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("GET /api/payments without limit returns the default page and a next cursor")
+    void missingLimitFallsBackToDefaultPage() {
+        ResponseEntity<JsonNode> signUp = restTemplate.postForEntity("/public/sign-up",
+                Map.of("email", uniqueEmail("paging"), "password", PASSWORD), JsonNode.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, signUp.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+
+        List<TransactionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i <= DEFAULT_LIMIT; i++) {
+            requests.add(transactionRequest("1.00"));
+        }
+        restTemplate.postForEntity("/api/add-funds/batch", new HttpEntity<>(requests, headers), String.class);
+
+        ResponseEntity<JsonNode> page = restTemplate.exchange("/api/payments", HttpMethod.GET,
+                new HttpEntity<>(headers), JsonNode.class);
+
+        assertAll(
+                () -> assertEquals(200, page.getStatusCodeValue()),
+                () -> assertEquals(DEFAULT_LIMIT, page.getBody().size()),
+                () -> assertNotNull(page.getHeaders().getFirst("X-Next-Cursor"), "More payments must come with a cursor")
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.lemfi.qa.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.repository.PaymentRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.paymentsOf;
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Raw request capture")
+@SpringBootTest(classes = HomeworkApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RawRequestBodyCaptureTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    PaymentRepository paymentRepository;
+
+    @Test
+    @Transactional
+    @Story("Add funds")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("POST /api/add-funds stores the request body exactly as sent")
+    void addFundsStoresRequestBodyAsSent() {
+        ResponseEntity<JsonNode> signUp = restTemplate.postForEntity("/public/sign-up",
+                Map.of("email", uniqueEmail("raw-body"), "password", "secret"), JsonNode.class);
+        Long userId = signUp.getBody().path("user").path("id").asLong();
+        String body = "{ \"investorId\": \"1000000001\", \"accountNumber\": \"123456789012\",\n"
+                + "  \"accountHolderFullName\": \"Zoë Investor\", \"accountHolderPersonalId\": \"123456789\",\n"
+                + "  \"transactionType\": \"FUNDING\", \"amount\": {\"currency\": \"EUR\", \"amount\": 5.10},\n"
+                + "  \"bookingDate\": \"" + LocalDate.now() + "\" }";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.COOKIE, signUp.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+        ResponseEntity<String> addFunds = restTemplate.postForEntity("/api/add-funds", new HttpEntity<>(body, headers), String.class);
+
+        List<PaymentDTO> payments = paymentsOf(paymentRepository, userId);
+        assertEquals(200, addFunds.getStatusCodeValue(), addFunds.getBody());
+        assertEquals(1, payments.size());
+        assertEquals(body, payments.get(0).getRawResponse(), "Stored request must be the body as sent");
+    }
+}
@@ -0,0 +1,56 @@
+package com.lemfi.qa.domain.entity;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Payment storage")
+class DeflatedStringConverterTests {
+
+    private static final String JSON = "{\"accountNumber\":\"LT601010012345678901\",\"transactionType\":\"FUNDING\","
+            + "\"amount\":{\"currency\":\"EUR\",\"amount\":125.50},\"bookingDate\":\"2025-03-15\"}";
+
+    /** {@link #JSON} as rows were stored before they had a version byte. */
+    private static final String UNVERSIONED_ROW = "q4b5Cx4KPiFmBoZAaGBoZGxiamZuYWlgCDQa0xcIH8KsRXEzqosMjUz1TA2wu8vAWNfQVKkWAA==";
+
+    @Test
+    @Story("Versioned dictionary")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Deflated rows start with their dictionary version and read back")
+    void roundTripsWithVersionByte() {
+        byte[] deflated = DeflatedStringConverter.deflate(JSON);
+
+        assertAll(
+                () -> assertEquals(0x0E, deflated[0], "Rows must be written with dictionary version 1"),
+                () -> assertEquals(JSON, DeflatedStringConverter.inflate(deflated))
+        );
+    }
+
+    @Test
+    @Story("Versioned dictionary")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Rows written before the version byte are read with the original dictionary")
+    void readsUnversionedRows() {
+        assertEquals(JSON, DeflatedStringConverter.inflate(Base64.getDecoder().decode(UNVERSIONED_ROW)));
+    }
+
+    @Test
+    @Story("Versioned dictionary")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Rows of an unknown dictionary version are rejected")
+    void rejectsUnknownVersion() {
+        byte[] deflated = DeflatedStringConverter.deflate(JSON);
+        deflated[0] = 0x7E;
+
+        assertThrows(IllegalArgumentException.class, () -> DeflatedStringConverter.inflate(deflated));
+    }
+}
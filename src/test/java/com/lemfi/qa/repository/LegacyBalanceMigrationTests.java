@@ -0,0 +1,141 @@
+package com.lemfi.qa.repository;
+
+import com.lemfi.qa.HomeworkApplication;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Balance")
+@SpringBootTest(classes = HomeworkApplication.class)
+class LegacyBalanceMigrationTests {
+
+    @Autowired
+    LegacyBalanceMigration legacyBalanceMigration;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    SequenceIdAllocator sequenceIdAllocator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void addLegacyColumn() {
+        jdbcTemplate.execute("ALTER TABLE users ADD COLUMN balance DECIMAL(19, 2)");
+    }
+
+    @AfterEach
+    void dropLegacyColumn() {
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS balance");
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS balance_migrated");
+    }
+
+    @Test
+    @Story("Migrate legacy balances")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Legacy balances are seeded in the currency of the user's payments")
+    void seedsBalancesPerCurrency() {
+        long singleCurrency = legacyUser("150.50", "EUR", "100.00", "EUR", "50.50");
+        long multiCurrency = legacyUser("30.00", "EUR", "10.00", "GBP", "20.00");
+
+        legacyBalanceMigration.migrateLegacyBalances();
+
+        assertAll(
+                () -> assertEquals(Map.of("EUR", 15050L), balances(singleCurrency)),
+                () -> assertEquals(Map.of("EUR", 1000L, "GBP", 2000L), balances(multiCurrency)),
+                () -> assertFalse(isReset(singleCurrency)),
+                () -> assertFalse(isReset(multiCurrency)),
+                () -> assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE table_name = 'USERS' AND column_name = 'BALANCE'", Long.class),
+                        "The legacy column must be renamed once every user is migrated")
+        );
+    }
+
+    @Test
+    @Story("Migrate legacy balances")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("A legacy balance that differs from the payments marks the user's balances as reset")
+    void marksResetBalances() {
+        long zeroed = legacyUser("0.00", "EUR", "100.00");
+        long partlyReset = legacyUser("40.00", "EUR", "100.00");
+
+        legacyBalanceMigration.migrateLegacyBalances();
+
+        assertAll(
+                () -> assertEquals(Map.of(), balances(zeroed)),
+                () -> assertEquals(Map.of("EUR", 4000L), balances(partlyReset)),
+                () -> assertTrue(isReset(zeroed)),
+                () -> assertTrue(isReset(partlyReset))
+        );
+    }
+
+    @Test
+    @Story("Migrate legacy balances")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Startup fails while a legacy balance can't be split by currency")
+    void refusesAmbiguousBalances() {
+        long ambiguous = legacyUser("25.00", "EUR", "10.00", "GBP", "10.00");
+        long seeded = legacyUser("5.00", "EUR", "5.00");
+
+        var e = assertThrows(IllegalStateException.class, legacyBalanceMigration::migrateLegacyBalances);
+        assertTrue(e.getMessage().contains(String.valueOf(ambiguous)), e.getMessage());
+
+        jdbcTemplate.update("UPDATE users SET balance = 0 WHERE id = ?", ambiguous);
+        legacyBalanceMigration.migrateLegacyBalances();
+
+        assertAll(
+                () -> assertEquals(Map.of("EUR", 500L), balances(seeded)),
+                () -> assertEquals(Map.of(), balances(ambiguous)),
+                () -> assertTrue(isReset(ambiguous))
+        );
+    }
+
+    /**
+     * Saves a user with the given legacy balance and payments, given as currency and amount pairs.
+     */
+    private long legacyUser(String balance, String... payments) {
+        long userId = saveUser(userRepository, "legacy-balance");
+        jdbcTemplate.update("UPDATE users SET balance = ? WHERE id = ?", new BigDecimal(balance), userId);
+
+        long[] ids = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, payments.length / 2);
+        for (int i = 0; i < payments.length; i += 2) {
+            jdbcTemplate.update("INSERT INTO payments (id, type, amount, currency, user_id) VALUES (?, 0, ?, ?, ?)",
+                    ids[i / 2], new BigDecimal(payments[i + 1]), payments[i], userId);
+        }
+        return userId;
+    }
+
+    private Map<String, Long> balances(long userId) {
+        Map<String, Long> balances = new TreeMap<>();
+        jdbcTemplate.query("SELECT currency, amount_minor FROM user_balances WHERE user_id = ?",
+                rs -> {
+                    balances.put(rs.getString(1), rs.getLong(2));
+                }, userId);
+        return balances;
+    }
+
+    private boolean isReset(long userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT balances_reset_at IS NOT NULL FROM users WHERE id = ?", Boolean.class, userId));
+    }
+}
@@ -0,0 +1,93 @@
+package com.lemfi.qa.repository;
+
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Payment storage")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentColumnsBackfillTests {
+
+    private static final int LEGACY_PAYMENTS = 2_500;
+
+    @Autowired
+    PaymentColumnsBackfill paymentColumnsBackfill;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    SequenceIdAllocator sequenceIdAllocator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Story("Backfill payment columns")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Booking date, account, investor and currency are parsed from stored request JSON")
+    void backfillsColumnsFromRawResponse() {
+        long userId = saveUser(userRepository, "backfill");
+
+        long[] ids = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, LEGACY_PAYMENTS + 3);
+        for (int i = 0; i < LEGACY_PAYMENTS; i++) {
+            String json = String.format("{\"accountNumber\":\"ACC-%d\",\"investorId\":\"INV-%d\","
+                    + "\"amount\":{\"currency\":\"GBP\",\"amount\":1.00},\"bookingDate\":\"2023-05-%02d\"}", i, i, i % 28 + 1);
+            insertLegacyPayment(ids[i], userId, json);
+        }
+        insertLegacyPayment(ids[LEGACY_PAYMENTS], userId, "not json");
+        insertLegacyPayment(ids[LEGACY_PAYMENTS + 1], userId, "{\"amount\":{\"currency\":\"USD\",\"amount\":1.00}}");
+        insertLegacyPayment(ids[LEGACY_PAYMENTS + 2], userId,
+                "{\"amount\":{\"currency\":\"EURO\",\"amount\":1.00},\"bookingDate\":\"2023-06-01\"}");
+
+        paymentColumnsBackfill.backfillPaymentColumns();
+
+        Map<String, Object> first = payment(ids[0]);
+        Map<String, Object> last = payment(ids[LEGACY_PAYMENTS - 1]);
+        Map<String, Object> unreadable = payment(ids[LEGACY_PAYMENTS]);
+        Map<String, Object> undated = payment(ids[LEGACY_PAYMENTS + 1]);
+        Map<String, Object> longCurrency = payment(ids[LEGACY_PAYMENTS + 2]);
+        Long pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE user_id = ? "
+                + "AND booking_date IS NULL AND booking_date_unknown IS NULL", Long.class, userId);
+        assertAll(
+                () -> assertEquals(java.sql.Date.valueOf(LocalDate.of(2023, 5, 1)), first.get("BOOKING_DATE")),
+                () -> assertEquals("ACC-0", first.get("ACCOUNT_NUMBER")),
+                () -> assertEquals("INV-0", first.get("INVESTOR_ID")),
+                () -> assertEquals("GBP", first.get("CURRENCY")),
+                () -> assertEquals("ACC-" + (LEGACY_PAYMENTS - 1), last.get("ACCOUNT_NUMBER")),
+                () -> assertEquals(Boolean.TRUE, unreadable.get("BOOKING_DATE_UNKNOWN")),
+                () -> assertEquals("USD", undated.get("CURRENCY"), "Currency must be filled without a booking date"),
+                () -> assertEquals(Boolean.TRUE, undated.get("BOOKING_DATE_UNKNOWN")),
+                () -> assertEquals(java.sql.Date.valueOf(LocalDate.of(2023, 6, 1)), longCurrency.get("BOOKING_DATE")),
+                () -> assertNull(longCurrency.get("CURRENCY")),
+                () -> assertEquals(0L, pending, "Payments without a booking date must not be parsed again")
+        );
+    }
+
+    private void insertLegacyPayment(long id, long userId, String json) {
+        jdbcTemplate.update("INSERT INTO payments (id, type, amount, user_id, raw_response_deflated) VALUES (?, 0, 1.00, ?, ?)",
+                id, userId, DeflatedStringConverter.deflate(json));
+    }
+
+    private Map<String, Object> payment(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT booking_date, account_number, investor_id, currency, booking_date_unknown FROM payments WHERE id = ?", id);
+    }
+}
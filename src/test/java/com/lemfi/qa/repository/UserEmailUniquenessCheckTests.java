@@ -0,0 +1,65 @@
+package com.lemfi.qa.repository;
+
+import com.lemfi.qa.HomeworkApplication;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static com.lemfi.qa.TestFixtures.PASSWORD;
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.USERS_SEQUENCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Registration API")
+@Feature("Unique emails")
+@SpringBootTest(classes = HomeworkApplication.class)
+class UserEmailUniquenessCheckTests {
+
+    @Autowired
+    UserEmailUniquenessCheck userEmailUniquenessCheck;
+
+    @Autowired
+    SequenceIdAllocator sequenceIdAllocator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreConstraint() {
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS uk_users_email UNIQUE (email)");
+    }
+
+    @Test
+    @Story("Duplicated emails")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Startup fails naming duplicated emails, and adds the constraint once they are gone")
+    void duplicatedEmailsAreReported() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT uk_users_email");
+        String email = uniqueEmail("duplicate");
+        long[] ids = sequenceIdAllocator.allocate(USERS_SEQUENCE, 2);
+        insertUser(ids[0], email);
+        insertUser(ids[1], email);
+
+        var e = assertThrows(IllegalStateException.class, userEmailUniquenessCheck::checkEmailsAreUnique);
+        assertTrue(e.getMessage().contains(email), e.getMessage());
+
+        jdbcTemplate.update("UPDATE users SET email = ? WHERE id = ?", uniqueEmail("renamed"), ids[1]);
+        userEmailUniquenessCheck.checkEmailsAreUnique();
+
+        assertThrows(DataIntegrityViolationException.class, () -> insertUser(ids[1] + 1_000_000, email),
+                "uk_users_email must be back once the duplicates are gone");
+    }
+
+    private void insertUser(long id, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, email, password) VALUES (?, ?, ?)", id, email, PASSWORD);
+    }
+}
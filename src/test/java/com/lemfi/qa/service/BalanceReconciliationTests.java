@@ -0,0 +1,158 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.UpdatePersonalDataRequestDTO;
+import com.lemfi.qa.domain.model.BalanceDrift;
+import com.lemfi.qa.domain.model.ReconciliationReport;
+import com.lemfi.qa.repository.SequenceIdAllocator;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Users API")
+@Feature("Balance reconciliation")
+@SpringBootTest(classes = HomeworkApplication.class, properties = "balances.reconciliation.users-per-range=7")
+class BalanceReconciliationTests {
+
+    @Autowired
+    BalanceReconciliation balanceReconciliation;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    SequenceIdAllocator sequenceIdAllocator;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "reconciliation");
+        authenticationHandler.authenticate(userId);
+
+        paymentService.handleAddFundsPayment(transactionRequest("10.00", "EUR"));
+        paymentService.handleAddFundsPayment(transactionRequest("5.50", "EUR"));
+        paymentService.handleAddFundsPayment(transactionRequest("300", "JPY"));
+
+        jdbcTemplate.update("UPDATE user_balances SET amount_minor = 999 WHERE user_id = ? AND currency = 'EUR'", userId);
+        jdbcTemplate.update("DELETE FROM user_balances WHERE user_id = ? AND currency = 'JPY'", userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Drift report")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Report mode lists drifted and missing balances without changing them")
+    void reportModeFindsDrift() throws Exception {
+        ReconciliationReport report = balanceReconciliation.reconcile(false);
+
+        assertAll(
+                () -> assertEquals(List.of(
+                        new BalanceDrift(userId, "EUR", new BigDecimal("9.99"), new BigDecimal("15.50"), false),
+                        new BalanceDrift(userId, "JPY", null, new BigDecimal("300"), false)
+                ), driftsOf(report)),
+                () -> assertEquals(new BigDecimal("9.99"), userService.getUserBalance().getBalances().get("EUR")),
+                () -> assertTrue(Files.readString(Path.of(report.getReportFile())).contains("\"userId\":" + userId),
+                        "Drifts must be written to the report file")
+        );
+    }
+
+    @Test
+    @Story("Drift report")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Fix mode sets balances to the payment totals")
+    void fixModeCorrectsBalances() {
+        assertEquals(2, driftsOf(balanceReconciliation.reconcile(true)).size());
+
+        assertAll(
+                () -> assertEquals(new BigDecimal("15.50"), userService.getUserBalance().getBalances().get("EUR")),
+                () -> assertEquals(new BigDecimal("300"), userService.getUserBalance().getBalances().get("JPY")),
+                () -> assertTrue(driftsOf(balanceReconciliation.reconcile(false)).isEmpty(),
+                        "Fixed balances must not drift anymore")
+        );
+    }
+
+    @Test
+    @Story("Drift report")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Fix mode leaves balances reset by a personal data update alone")
+    void fixModeSkipsResetBalances() {
+        var personalData = new UpdatePersonalDataRequestDTO();
+        personalData.setFirstName("Test");
+        personalData.setSurname("Investor");
+        personalData.setPersonalId(123456789L);
+        registrationService.updatePersonalData(personalData);
+
+        assertAll(
+                () -> assertTrue(driftsOf(balanceReconciliation.reconcile(true)).isEmpty(),
+                        "Reset balances must not be reported"),
+                () -> assertTrue(userService.getUserBalance().getBalances().isEmpty(),
+                        "Reset balances must not be restored from the payments")
+        );
+    }
+
+    @Test
+    @Story("Drift report")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Payments that can't be converted to minor units are skipped")
+    void unreadablePaymentsAreSkipped() {
+        long[] ids = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, 2);
+        jdbcTemplate.update("INSERT INTO payments (id, type, amount, currency, user_id) VALUES (?, 0, 1.5, 'XAU', ?)",
+                ids[0], userId);
+        jdbcTemplate.update("INSERT INTO payments (id, type, amount, currency, user_id) VALUES (?, 0, 1.5, 'XX', ?)",
+                ids[1], userId);
+
+        assertEquals(List.of("EUR", "JPY"), driftsOf(balanceReconciliation.reconcile(false)).stream()
+                .map(BalanceDrift::getCurrency)
+                .collect(Collectors.toList()));
+    }
+
+    private List<BalanceDrift> driftsOf(ReconciliationReport report) {
+        return report.getDrifts().stream()
+                .filter(it -> it.getUserId().equals(userId))
+                .sorted((a, b) -> a.getCurrency().compareTo(b.getCurrency()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.domain.model.AddFundsBatchItemResult;
+import com.lemfi.qa.domain.model.AddFundsBatchResponse;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.UserBalanceRepository;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.TestFixtures.paymentsOf;
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Epic("Payments API")
+@Feature("Add funds batch")
+@SpringBootTest(classes = HomeworkApplication.class, properties = "payments.batch.chunk-size=1000")
+class PaymentServiceBatchTests {
+
+    private static final int ROWS = 10_000;
+    private static final int INVALID_EVERY = 100;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    PaymentRepository paymentRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    UserBalanceRepository userBalanceRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "batch");
+        authenticationHandler.authenticate(userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Bulk import")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Batch add-funds imports valid rows, rejects invalid ones and credits the total once per chunk")
+    void batchImportsValidRowsAndReportsEachItem() {
+        List<TransactionRequestDTO> requests = new ArrayList<>(ROWS);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            if (i % INVALID_EVERY == 0) {
+                requests.add(transactionRequest(new BigDecimal("0.00")));
+            } else {
+                requests.add(transactionRequest(new BigDecimal("1.25")));
+                total = total.add(new BigDecimal("1.25"));
+            }
+        }
+
+        long started = System.nanoTime();
+        AddFundsBatchResponse response = paymentService.handleAddFundsBatch(requests);
+        log.info("Imported {} rows in {} ms", ROWS, (System.nanoTime() - started) / 1_000_000);
+
+        BigDecimal expectedBalance = total;
+        int expectedRejected = ROWS / INVALID_EVERY;
+        BigDecimal balance = userBalanceRepository.findById(new UserBalance.Key(userId, "EUR"))
+                .map(it -> toAmount(it.getAmountMinor(), "EUR")).orElse(BigDecimal.ZERO);
+        List<Long> paymentIds = response.getItems().stream()
+                .map(AddFundsBatchItemResult::getPaymentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        assertAll(
+                () -> assertEquals(ROWS, response.getItems().size(), "Every item must get a result"),
+                () -> assertEquals(expectedRejected, response.getRejected(), "Invalid items must be rejected"),
+                () -> assertEquals(ROWS - expectedRejected, response.getImported(), "Valid items must be imported"),
+                () -> assertEquals("Amount must be greater than or equal to 0.01", response.getItems().get(0).getMessage(),
+                        "Rejected item must carry the validation message"),
+                () -> assertEquals(ROWS - expectedRejected, paymentIds.stream().distinct().count(),
+                        "Imported items must get distinct payment ids"),
+                () -> assertEquals(ROWS - expectedRejected, paymentsOf(paymentRepository, userId).size(),
+                        "Every imported item must be stored"),
+                () -> assertEquals(0, expectedBalance.compareTo(balance), "Balance must equal the imported total")
+        );
+    }
+}
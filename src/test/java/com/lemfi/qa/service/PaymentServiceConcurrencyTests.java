@@ -0,0 +1,152 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.entity.PooledSequenceGenerator;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.UserBalanceRepository;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.lemfi.qa.TestFixtures.paymentsOf;
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Epic("Payments API")
+@Feature("Add funds concurrency")
+@SpringBootTest(classes = HomeworkApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PaymentServiceConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int CREDITS_PER_THREAD = 50;
+    private static final int STATEMENT_CHECK_CREDITS = 100;
+    private static final BigDecimal CREDIT = new BigDecimal("0.01");
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    PaymentRepository paymentRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    UserBalanceRepository userBalanceRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "concurrency");
+    }
+
+    @Test
+    @Story("Atomic credit")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Concurrent add-funds credits for one user add up exactly")
+    void concurrentCreditsAddUpExactly() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                authenticationHandler.authenticate(userId);
+                try {
+                    start.await();
+                    int credited = 0;
+                    for (int j = 0; j < CREDITS_PER_THREAD; j++) {
+                        if (paymentService.handleAddFundsPayment(transactionRequest(CREDIT)).isPresent()) {
+                            credited++;
+                        }
+                    }
+                    return credited;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        int credited = total;
+
+        int expectedCredits = THREADS * CREDITS_PER_THREAD;
+        BigDecimal balance = userBalanceRepository.findById(new UserBalance.Key(userId, "EUR"))
+                .map(it -> toAmount(it.getAmountMinor(), "EUR")).orElse(BigDecimal.ZERO);
+        log.info("Credited {} times, balance={}", credited, balance);
+
+        assertAll(
+                () -> assertEquals(expectedCredits, credited, "Every credit must succeed"),
+                () -> assertEquals(expectedCredits, paymentsOf(paymentRepository, userId).size(),
+                        "Every credit must store a payment"),
+                () -> assertEquals(0, CREDIT.multiply(BigDecimal.valueOf(expectedCredits)).compareTo(balance),
+                        "Balance must equal the sum of all credits")
+        );
+    }
+
+    @Test
+    @Story("Atomic credit")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Add-funds costs a balance UPDATE, a payment INSERT and a summary UPDATE")
+    void creditIssuesThreeStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        authenticationHandler.authenticate(userId);
+        try {
+            statistics.clear();
+            for (int i = 0; i < STATEMENT_CHECK_CREDITS; i++) {
+                assertTrue(paymentService.handleAddFundsPayment(transactionRequest(new BigDecimal("5.00"))).isPresent(),
+                        "Payment id must be returned");
+            }
+
+            // one sequence call per block of pooled ids on top of the three statements, plus the
+            // INSERTs opening the balance and the monthly summary on the first credit
+            long sequenceCalls = STATEMENT_CHECK_CREDITS / PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + 1;
+            assertTrue(statistics.getPrepareStatementCount() <= 3L * STATEMENT_CHECK_CREDITS + sequenceCalls + 2,
+                    "Credit must be a balance UPDATE, a payment INSERT and a summary UPDATE, without selecting the user, but took "
+                            + statistics.getPrepareStatementCount() + " statements for " + STATEMENT_CHECK_CREDITS + " credits");
+            assertEquals(0, statistics.getEntityLoadCount(), "Credit must not load the user entity");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
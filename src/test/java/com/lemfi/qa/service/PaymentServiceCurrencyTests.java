@@ -0,0 +1,153 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.validation.TransactionRequestValidator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.TestFixtures.paymentsOf;
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Multi-currency balances")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentServiceCurrencyTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    PaymentRepository paymentRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    TransactionRequestValidator transactionRequestValidator;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "currency");
+        authenticationHandler.authenticate(userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Balance breakdown")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Credits in different currencies are kept apart")
+    void balancesAreKeptPerCurrency() {
+        paymentService.handleAddFundsPayment(transactionRequest("5.00", "EUR"));
+        paymentService.handleAddFundsPayment(transactionRequest("0.10", "EUR"));
+        paymentService.handleAddFundsPayment(transactionRequest("1.00", "USD"));
+        paymentService.handleAddFundsBatch(List.of(transactionRequest("500", "JPY"), transactionRequest("2.5", "USD")));
+
+        Map<String, BigDecimal> balances = userService.getUserBalance().getBalances();
+        Map<String, String> currencies = paymentsOf(paymentRepository, userId).stream()
+                .collect(Collectors.toMap(it -> it.getId().toString(), PaymentDTO::getCurrency));
+
+        assertAll(
+                () -> assertEquals(List.of("EUR", "JPY", "USD"), new ArrayList<>(balances.keySet())),
+                () -> assertEquals(new BigDecimal("5.10"), balances.get("EUR")),
+                () -> assertEquals(new BigDecimal("500"), balances.get("JPY")),
+                () -> assertEquals(new BigDecimal("3.50"), balances.get("USD")),
+                () -> assertEquals(List.of("EUR", "EUR", "JPY", "USD", "USD"),
+                        currencies.values().stream().sorted().collect(Collectors.toList()),
+                        "Every payment must keep its currency")
+        );
+    }
+
+    @Test
+    @Story("Balance breakdown")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Concurrent first credits in a new currency all land")
+    void concurrentFirstCreditsOpenOneBalance() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Long id = userId;
+            List<CompletableFuture<Boolean>> credits = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                credits.add(CompletableFuture.supplyAsync(() -> {
+                    authenticationHandler.authenticate(id);
+                    try {
+                        start.await();
+                        return paymentService.handleAddFundsPayment(transactionRequest("1.00", "GBP")).isPresent();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }, pool));
+            }
+            start.countDown();
+            for (CompletableFuture<Boolean> credit : credits) {
+                assertTrue(credit.get(), "Every credit must succeed");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(new BigDecimal(THREADS + ".00"), userService.getUserBalance().getBalances().get("GBP"));
+    }
+
+    @Test
+    @Story("Validation")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Unknown currencies and sub-minor-unit amounts are rejected")
+    void invalidCurrencyAmountsAreRejected() {
+        assertAll(
+                () -> assertEquals("Currency must be an ISO 4217 code",
+                        transactionRequestValidator.validate(transactionRequest("1.00", "AAA")).getMessage().getMessage()),
+                () -> assertEquals("Currency must be an ISO 4217 code",
+                        transactionRequestValidator.validate(transactionRequest("1.00", "XAU")).getMessage().getMessage()),
+                () -> assertEquals("Amount must have at most 2 decimal places",
+                        transactionRequestValidator.validate(transactionRequest("1.001", "EUR")).getMessage().getMessage()),
+                () -> assertEquals("Amount must have at most 0 decimal places",
+                        transactionRequestValidator.validate(transactionRequest("1.5", "JPY")).getMessage().getMessage()),
+                () -> assertEquals("Amount is too large",
+                        transactionRequestValidator.validate(transactionRequest("1E17", "EUR")).getMessage().getMessage()),
+                () -> assertTrue(transactionRequestValidator.validate(transactionRequest("1.100", "EUR")).isValid())
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package com.lemfi.qa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.JsonConverter;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Export payments")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentServiceExportTests {
+
+    private static final int PAYMENTS = 1_200;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "export");
+        authenticationHandler.authenticate(userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("NDJSON export")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Export writes one JSON line per payment, oldest first")
+    void exportWritesOneLinePerPayment() throws Exception {
+        List<TransactionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            requests.add(transactionRequest("2.00"));
+        }
+        paymentService.handleAddFundsBatch(requests);
+
+        var out = new ByteArrayOutputStream();
+        paymentService.exportPayments(userId, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(PAYMENTS, lines.length, "Export must contain one line per payment");
+
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode payment = JsonConverter.mapper.readTree(line);
+            assertTrue(payment.get("id").asLong() > previousId, "Payments must be exported in id order");
+            assertEquals(0, new BigDecimal("2.00").compareTo(payment.get("amount").decimalValue()),
+                    "Exported amount must match the stored payment");
+            assertFalse(payment.has("rawResponse"), "rawResponse must only be exported on request");
+            previousId = payment.get("id").asLong();
+        }
+    }
+
+    @Test
+    @Story("NDJSON export")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Export includes the inflated rawResponse on request")
+    void exportIncludesRawResponseOnRequest() throws Exception {
+        paymentService.handleAddFundsBatch(List.of(transactionRequest("2.00")));
+
+        var out = new ByteArrayOutputStream();
+        paymentService.exportPayments(userId, true, out);
+
+        JsonNode payment = JsonConverter.mapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        JsonNode rawResponse = JsonConverter.mapper.readTree(payment.get("rawResponse").asText());
+        assertEquals("123456789012", rawResponse.get("accountNumber").asText(),
+                "rawResponse must be the stored request JSON");
+    }
+
+    @Test
+    @Story("NDJSON export")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Export of an empty history is empty")
+    void exportOfEmptyHistoryIsEmpty() {
+        var out = new ByteArrayOutputStream();
+        paymentService.exportPayments(userId, false, out);
+
+        assertEquals(0, out.size(), "User without payments must get an empty export");
+    }
+}
@@ -0,0 +1,146 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.model.AddFundsBatchItemResult;
+import com.lemfi.qa.domain.model.PaymentFilter;
+import com.lemfi.qa.domain.model.PaymentPage;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Get payments")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentServiceFilterTests {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 20;
+    private static final String ACCOUNT = "111111111111";
+    private static final String OTHER_ACCOUNT = "222222222222";
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    private List<Long> paymentIds;
+
+    @BeforeEach
+    void init() {
+        authenticationHandler.authenticate(saveUser(userRepository, "filter"));
+
+        List<TransactionRequestDTO> requests = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            TransactionRequestDTO request = transactionRequest("1.00", "EUR", START.plusDays(day));
+            request.setAccountNumber(day % 2 == 0 ? ACCOUNT : OTHER_ACCOUNT);
+            requests.add(request);
+        }
+        paymentIds = paymentService.handleAddFundsBatch(requests).getItems().stream()
+                .map(AddFundsBatchItemResult::getPaymentId)
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Filter payments")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Booking date range is inclusive on both ends")
+    void bookingDateRangeIsInclusive() {
+        var filter = new PaymentFilter(START.plusDays(5), START.plusDays(9), null);
+
+        assertEquals(paymentIds.subList(5, 10), listAll(filter, 100));
+    }
+
+    @Test
+    @Story("Filter payments")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Open-ended date range and account number filters combine")
+    void filtersCombine() {
+        var filter = new PaymentFilter(START.plusDays(14), null, ACCOUNT);
+
+        assertEquals(List.of(paymentIds.get(14), paymentIds.get(16), paymentIds.get(18)), listAll(filter, 100));
+    }
+
+    @Test
+    @Story("Filter payments")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Cursors page through filtered results")
+    void cursorsPageThroughFilteredResults() {
+        var filter = new PaymentFilter(null, null, OTHER_ACCOUNT);
+
+        List<Long> expected = new ArrayList<>();
+        for (int day = 1; day < DAYS; day += 2) {
+            expected.add(paymentIds.get(day));
+        }
+        assertEquals(expected, listAll(filter, 3));
+    }
+
+    @Test
+    @Story("Filter payments")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Date-filtered pages are in booking date order")
+    void dateFilteredPagesAreInBookingDateOrder() {
+        List<Long> late = paymentService.handleAddFundsBatch(List.of(
+                        transactionRequest("1.00", "EUR", START.plusDays(5)),
+                        transactionRequest("1.00", "EUR", START.plusDays(2)),
+                        transactionRequest("1.00", "EUR", START.plusDays(5)))).getItems().stream()
+                .map(AddFundsBatchItemResult::getPaymentId)
+                .collect(Collectors.toList());
+        var filter = new PaymentFilter(START.plusDays(2), START.plusDays(5), null);
+
+        assertEquals(List.of(paymentIds.get(2), late.get(1), paymentIds.get(3), paymentIds.get(4), paymentIds.get(5),
+                late.get(0), late.get(2)), listAll(filter, 2));
+    }
+
+    @Test
+    @Story("Filter payments")
+    @Severity(SeverityLevel.MINOR)
+    @DisplayName("Cursor of an unfiltered page is rejected for a date-filtered one")
+    void unfilteredCursorIsRejectedForDates() {
+        String cursor = paymentService.getPayments(null, 1, false).getNext();
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.getPayments(cursor, 1, false,
+                new PaymentFilter(START, null, null)));
+    }
+
+    private List<Long> listAll(PaymentFilter filter, int limit) {
+        List<Long> listedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaymentPage page = paymentService.getPayments(cursor, limit, false, filter);
+            page.getItems().stream().map(PaymentDTO::getId).forEach(listedIds::add);
+            cursor = page.getNext();
+        } while (cursor != null);
+        return listedIds;
+    }
+}
@@ -0,0 +1,150 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.repository.PaymentRepository;
+import com.lemfi.qa.repository.UserBalanceRepository;
+import com.lemfi.qa.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.lemfi.qa.TestFixtures.paymentsOf;
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Add funds idempotency")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentServiceIdempotencyTests {
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    PaymentRepository paymentRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    UserBalanceRepository userBalanceRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    IdempotencyKeyCache idempotencyKeyCache;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "idempotency");
+        authenticationHandler.authenticate(userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Retry")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Retry with the same Idempotency-Key returns the original payment from cache")
+    void retryIsAnsweredFromCache() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        double hitsBefore = cacheGets("hit");
+
+        Optional<Long> first = paymentService.handleAddFundsPayment(transactionRequest("5.00"), idempotencyKey);
+        Optional<Long> retry = paymentService.handleAddFundsPayment(transactionRequest("5.00"), idempotencyKey);
+
+        assertAll(
+                () -> assertTrue(first.isPresent(), "First request must create a payment"),
+                () -> assertEquals(first, retry, "Retry must return the original payment id"),
+                () -> assertEquals(1, paymentsOf(paymentRepository, userId).size(), "Retry must not store a payment"),
+                () -> assertEquals(0, new BigDecimal("5.00").compareTo(balance()), "Retry must not credit again"),
+                () -> assertEquals(hitsBefore + 1, cacheGets("hit"), "Retry must be a cache hit")
+        );
+    }
+
+    @Test
+    @Story("Retry")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Retry after the cache entry is gone is stopped by the unique constraint")
+    void retryAfterEvictionIsAnsweredFromDatabase() {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        Optional<Long> first = paymentService.handleAddFundsPayment(transactionRequest("5.00"), idempotencyKey);
+        idempotencyKeyCache.invalidateAll();
+        Optional<Long> retry = paymentService.handleAddFundsPayment(transactionRequest("5.00"), idempotencyKey);
+
+        assertAll(
+                () -> assertEquals(first, retry, "Retry must return the original payment id"),
+                () -> assertEquals(1, paymentsOf(paymentRepository, userId).size(), "Retry must not store a payment"),
+                () -> assertEquals(0, new BigDecimal("5.00").compareTo(balance()), "Retry must not credit again")
+        );
+    }
+
+    @Test
+    @Story("Retry")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Different Idempotency-Keys create separate payments")
+    void differentKeysCreateSeparatePayments() {
+        Optional<Long> first = paymentService.handleAddFundsPayment(transactionRequest("5.00"), UUID.randomUUID().toString());
+        Optional<Long> second = paymentService.handleAddFundsPayment(transactionRequest("5.00"), UUID.randomUUID().toString());
+
+        assertNotEquals(first, second, "Each key must create its own payment");
+        assertEquals(0, new BigDecimal("10.00").compareTo(balance()), "Each key must credit the balance");
+    }
+
+    @Test
+    @Story("Retry")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Invalidating a user forgets only that user's keys")
+    void invalidateUserForgetsOnlyTheirKeys() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        idempotencyKeyCache.putPaymentId(userId, idempotencyKey, 1L);
+        idempotencyKeyCache.putPaymentId(userId + 10, idempotencyKey, 2L);
+        idempotencyKeyCache.putPaymentId(userId * 10, idempotencyKey, 3L);
+
+        idempotencyKeyCache.invalidateUser(userId);
+
+        assertAll(
+                () -> assertNull(idempotencyKeyCache.getPaymentId(userId, idempotencyKey)),
+                () -> assertEquals(2L, idempotencyKeyCache.getPaymentId(userId + 10, idempotencyKey)),
+                () -> assertEquals(3L, idempotencyKeyCache.getPaymentId(userId * 10, idempotencyKey))
+        );
+    }
+
+    private BigDecimal balance() {
+        return userBalanceRepository.findById(new UserBalance.Key(userId, "EUR"))
+                .map(it -> toAmount(it.getAmountMinor(), "EUR")).orElse(BigDecimal.ZERO);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "payments.idempotency").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.PaymentDTO;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.model.AddFundsBatchItemResult;
+import com.lemfi.qa.domain.model.PaymentPage;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Get payments")
+@SpringBootTest(classes = HomeworkApplication.class)
+class PaymentServicePaginationTests {
+
+    private static final int PAYMENTS = 25;
+    private static final int LIMIT = 10;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @BeforeEach
+    void init() {
+        authenticationHandler.authenticate(saveUser(userRepository, "pagination"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Cursor pagination")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Following next cursors returns every payment once, oldest first")
+    void cursorWalksWholeHistory() {
+        List<TransactionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            requests.add(transactionRequest("1.00"));
+        }
+        List<Long> createdIds = paymentService.handleAddFundsBatch(requests).getItems().stream()
+                .map(AddFundsBatchItemResult::getPaymentId)
+                .collect(Collectors.toList());
+
+        List<Long> listedIds = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaymentPage page = paymentService.getPayments(cursor, LIMIT, false);
+            pageSizes.add(page.getItems().size());
+            page.getItems().stream().map(PaymentDTO::getId).forEach(listedIds::add);
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        List<Long> sortedIds = new ArrayList<>(createdIds);
+        Collections.sort(sortedIds);
+        assertAll(
+                () -> assertEquals(List.of(10, 10, 5), pageSizes, "Pages must be filled up to the limit"),
+                () -> assertEquals(sortedIds, listedIds, "Every payment must be listed once, in id order")
+        );
+    }
+
+    @Test
+    @Story("Cursor pagination")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Last page has no next cursor")
+    void emptyHistoryHasNoNextCursor() {
+        PaymentPage page = paymentService.getPayments(null, LIMIT, false);
+
+        assertTrue(page.getItems().isEmpty(), "User without payments must get an empty page");
+        assertNull(page.getNext(), "Last page must not have a next cursor");
+    }
+
+    @Test
+    @Story("Cursor pagination")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Malformed cursor is rejected")
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.getPayments("not a cursor", LIMIT, false));
+    }
+}
@@ -0,0 +1,140 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.model.PaymentSummaryResponse;
+import com.lemfi.qa.domain.model.PaymentSummaryResponse.MonthlyTotal;
+import com.lemfi.qa.repository.PaymentSummaryRebuild;
+import com.lemfi.qa.repository.SequenceIdAllocator;
+import com.lemfi.qa.repository.UserRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.PAYMENTS_SEQUENCE;
+import static com.lemfi.qa.domain.model.TransactionType.FUNDING;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payments API")
+@Feature("Payment summary")
+@SpringBootTest(classes = HomeworkApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PaymentSummaryServiceTests {
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    PaymentSummaryService paymentSummaryService;
+
+    @Autowired
+    PaymentSummaryRebuild paymentSummaryRebuild;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    SequenceIdAllocator sequenceIdAllocator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "summary");
+        authenticationHandler.authenticate(userId);
+
+        paymentService.handleAddFundsPayment(transactionRequest("10.00", "EUR", LocalDate.of(2024, 1, 5)));
+        paymentService.handleAddFundsPayment(transactionRequest("2.50", "EUR", LocalDate.of(2024, 1, 31)));
+        paymentService.handleAddFundsBatch(List.of(
+                transactionRequest("1.25", "EUR", LocalDate.of(2024, 1, 20)),
+                transactionRequest("500", "JPY", LocalDate.of(2024, 1, 1)),
+                transactionRequest("7.00", "EUR", LocalDate.of(2024, 2, 1))));
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Maintained totals")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Single and batch imports are summed per month, type and currency")
+    void importsAreSummarized() {
+        assertEquals(List.of(
+                new MonthlyTotal("2024-01", FUNDING, "EUR", 3, new BigDecimal("13.75")),
+                new MonthlyTotal("2024-01", FUNDING, "JPY", 1, new BigDecimal("500")),
+                new MonthlyTotal("2024-02", FUNDING, "EUR", 1, new BigDecimal("7.00"))
+        ), paymentSummaryService.getSummary(userId).getTotals());
+    }
+
+    @Test
+    @Story("Maintained totals")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Summary is one query on the summaries")
+    void summaryIsOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        paymentSummaryService.getSummary(userId);
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Summary must not read the payments");
+    }
+
+    @Test
+    @Story("Rebuild")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Rebuild from the payments gives the maintained totals")
+    void rebuildMatchesMaintainedTotals() {
+        PaymentSummaryResponse maintained = paymentSummaryService.getSummary(userId);
+
+        paymentSummaryRebuild.rebuild();
+
+        assertEquals(maintained, paymentSummaryService.getSummary(userId));
+    }
+
+    @Test
+    @Story("Rebuild")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Rebuild leaves out payments that can't be put in minor units")
+    void rebuildSkipsUnreadablePayments() {
+        PaymentSummaryResponse maintained = paymentSummaryService.getSummary(userId);
+        long[] ids = sequenceIdAllocator.allocate(PAYMENTS_SEQUENCE, 2);
+        jdbcTemplate.update("INSERT INTO payments (id, type, amount, currency, booking_date, user_id) "
+                + "VALUES (?, 0, 1.5, 'XAU', DATE '2024-01-10', ?)", ids[0], userId);
+        jdbcTemplate.update("INSERT INTO payments (id, type, amount, currency, booking_date, user_id) "
+                + "VALUES (?, 0, 1.5, 'JPY', DATE '2024-03-10', ?)", ids[1], userId);
+
+        paymentSummaryRebuild.rebuild();
+
+        assertEquals(maintained, paymentSummaryService.getSummary(userId));
+    }
+}
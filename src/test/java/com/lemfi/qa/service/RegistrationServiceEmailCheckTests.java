@@ -0,0 +1,91 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.RegistrationRequestDTO;
+import com.lemfi.qa.repository.UserRepository;
+import com.lemfi.qa.validation.RegistrationRequestValidator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static com.lemfi.qa.TestFixtures.uniqueEmail;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Registration API")
+@Feature("Email existence check")
+@SpringBootTest(classes = HomeworkApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RegistrationServiceEmailCheckTests {
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Autowired
+    RegistrationRequestValidator registrationRequestValidator;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Story("New email")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Validating a new email does not query the database")
+    void newEmailSkipsLookup() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        boolean valid = registrationRequestValidator.validate(request(uniqueEmail("sign-up"))).isValid();
+
+        assertTrue(valid, "New email must be accepted");
+        assertEquals(0, statistics.getPrepareStatementCount(), "New email must be answered by the filter");
+    }
+
+    @Test
+    @Story("Taken email")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("A registered email is rejected by validation")
+    void registeredEmailIsRejected() {
+        String email = uniqueEmail("sign-up");
+        registrationService.registerUser(request(email));
+
+        var status = registrationRequestValidator.validate(request(email));
+
+        assertFalse(status.isValid(), "Registered email must be rejected");
+        assertEquals("Email already exists.", status.getMessage().getMessage());
+    }
+
+    @Test
+    @Story("Taken email")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("A duplicate that slips past validation is stopped by the unique constraint")
+    void duplicateInsertIsRejectedByConstraint() {
+        String email = uniqueEmail("sign-up");
+
+        var first = registrationService.registerUser(request(email));
+        var second = registrationService.registerUser(request(email));
+
+        assertTrue(first.isPresent(), "First registration must succeed");
+        assertTrue(second.isEmpty(), "Second registration must be rejected");
+        assertTrue(userRepository.existsByEmail(email));
+    }
+
+    private static RegistrationRequestDTO request(String email) {
+        var request = new RegistrationRequestDTO();
+        request.setEmail(email);
+        request.setPassword("secret");
+        return request;
+    }
+}
@@ -0,0 +1,183 @@
+package com.lemfi.qa.service;
+
+import com.lemfi.qa.AuthenticationHandler;
+import com.lemfi.qa.HomeworkApplication;
+import com.lemfi.qa.domain.dto.UpdatePersonalDataRequestDTO;
+import com.lemfi.qa.domain.entity.UserBalance;
+import com.lemfi.qa.repository.UserBalanceRepository;
+import com.lemfi.qa.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.lemfi.qa.TestFixtures.saveUser;
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toAmount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Users API")
+@Feature("Balance cache")
+@SpringBootTest(classes = HomeworkApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceBalanceCacheTests {
+
+    private static final int WRITERS = 4;
+    private static final int CREDITS_PER_WRITER = 50;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    UserBalanceRepository userBalanceRepository;
+
+    @Autowired
+    AuthenticationHandler authenticationHandler;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void init() {
+        userId = saveUser(userRepository, "balance-cache");
+        authenticationHandler.authenticate(userId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Story("Polling")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Repeated balance reads are served from the cache without touching the database")
+    void repeatedReadsDoNotQueryTheDatabase() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userService.getUserBalance();
+        double hitsBefore = cacheGets("hit");
+        statistics.clear();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, BigDecimal.ZERO.compareTo(eurBalance()));
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Cached reads must not run SQL");
+        assertEquals(hitsBefore + 100, cacheGets("hit"), "Every read must be a cache hit");
+    }
+
+    @Test
+    @Story("Write-through")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Add funds is visible on the next balance read")
+    void addFundsRefreshesCachedBalance() {
+        userService.getUserBalance();
+
+        paymentService.handleAddFundsPayment(transactionRequest("5.00"));
+        BigDecimal afterSingle = eurBalance();
+        paymentService.handleAddFundsBatch(List.of(transactionRequest("1.00"), transactionRequest("2.00")));
+        BigDecimal afterBatch = eurBalance();
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(afterSingle), "Single credit must be visible");
+        assertEquals(0, new BigDecimal("8.00").compareTo(afterBatch), "Batch credit must be visible");
+    }
+
+    @Test
+    @Story("Write-through")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Updating personal data resets the cached balance")
+    void updatePersonalDataRefreshesCachedBalance() {
+        paymentService.handleAddFundsPayment(transactionRequest("5.00"));
+        assertEquals(0, new BigDecimal("5.00").compareTo(eurBalance()));
+
+        var request = new UpdatePersonalDataRequestDTO();
+        request.setFirstName("Test");
+        request.setSurname("Investor");
+        request.setPersonalId(123456789L);
+        registrationService.updatePersonalData(request);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(eurBalance()));
+    }
+
+    @Test
+    @Story("Write-through")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Balance read after concurrent credits matches the database")
+    void concurrentCreditsAndReadsDoNotLeaveStaleBalance() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            Long id = userId;
+            CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+                authenticationHandler.authenticate(id);
+                while (writing.get()) {
+                    userService.getUserBalance();
+                }
+            }, pool);
+            List<CompletableFuture<Void>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(CompletableFuture.runAsync(() -> {
+                    authenticationHandler.authenticate(id);
+                    for (int i = 0; i < CREDITS_PER_WRITER; i++) {
+                        paymentService.handleAddFundsPayment(transactionRequest("1.00"));
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get();
+            writing.set(false);
+            reader.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BigDecimal expected = new BigDecimal(WRITERS * CREDITS_PER_WRITER);
+        BigDecimal stored = userBalanceRepository.findById(new UserBalance.Key(userId, "EUR"))
+                .map(it -> toAmount(it.getAmountMinor(), "EUR")).orElse(BigDecimal.ZERO);
+        assertEquals(0, expected.compareTo(stored), "Every credit must be stored");
+        assertEquals(0, expected.compareTo(eurBalance()),
+                "Cached balance must match the stored balance");
+    }
+
+    private BigDecimal eurBalance() {
+        return userService.getUserBalance().getBalances().getOrDefault("EUR", BigDecimal.ZERO);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "users.balance").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -1,5 +1,6 @@
 package lemfi.dao.payments;
 
+import com.lemfi.qa.domain.entity.DeflatedStringConverter;
 import lemfi.model.TransactionType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -19,7 +20,7 @@ public class PaymentDao {
                     paymentDto.setType(TransactionType.valueOf(rs.getString("type")));
                     paymentDto.setAmount(rs.getBigDecimal("amount"));
                     paymentDto.setUserId(rs.getLong("user_id"));
-                    paymentDto.setRawResponse(rs.getString("raw_response"));
+                    paymentDto.setRawResponse(DeflatedStringConverter.inflate(rs.getBytes("raw_response_deflated")));
                     return paymentDto;
                 },
                 userId
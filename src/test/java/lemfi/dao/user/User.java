@@ -3,7 +3,6 @@ package lemfi.dao.user;
 import com.lemfi.qa.domain.entity.Payment;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.util.List;
 @Data
 public class User {
@@ -14,6 +13,5 @@ public class User {
     private String surname;
     private Long personalId;
     private List<Payment> payments;
-    private BigDecimal balance;
 }
 
@@ -21,7 +21,6 @@ public class UserDao {
                     user.setFirstName(rs.getString("first_name"));
                     user.setSurname(rs.getString("surname"));
                     user.setPersonalId(rs.getLong("personal_d"));
-                    user.setBalance(rs.getBigDecimal("balance"));
                     return user;
                 },
                 email
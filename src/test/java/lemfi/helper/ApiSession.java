@@ -0,0 +1,65 @@
+package lemfi.helper;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Session cookie of one API user, sent with every request it filters and updated from every response that sets a
+ * new one. The current thread's session is kept here too: sign-up starts a new one and a leased fixture user
+ * brings its own, and every {@link RequestHelper} call made afterwards on the same thread carries it, so parallel
+ * tests each stay logged in as their own user.
+ */
+public class ApiSession implements Filter {
+
+    private static final ThreadLocal<ApiSession> CURRENT = ThreadLocal.withInitial(ApiSession::new);
+
+    private volatile String sessionId;
+
+    public ApiSession() {
+    }
+
+    public ApiSession(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public static ApiSession current() {
+        return CURRENT.get();
+    }
+
+    /** Forgets the current user; the next response that sets a session cookie starts the new one. */
+    public static ApiSession startNew() {
+        return use(new ApiSession());
+    }
+
+    /** Makes the current thread act as the owner of {@code session}. */
+    public static ApiSession use(ApiSession session) {
+        CURRENT.set(session);
+        return session;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public boolean hasSessionId() {
+        return sessionId != null;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        String current = sessionId;
+        if (current != null) {
+            request.sessionId(current);
+        }
+        Response result = context.next(request, response);
+        String issued = result.sessionId();
+        if (issued != null) {
+            sessionId = issued;
+        }
+        return result;
+    }
+}
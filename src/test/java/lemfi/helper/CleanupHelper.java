@@ -1,7 +1,5 @@
 package lemfi.helper;
 
-import lemfi.dao.payments.PaymentDao;
-import lemfi.dao.user.UserDao;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,28 +7,15 @@ import lombok.extern.slf4j.Slf4j;
 @UtilityClass
 public class CleanupHelper {
 
-    public static void cleanupPaymentAndUser(
-            PaymentDao paymentDao,
-            Long paymentIdToCleanup,
-            UserDao userDao,
-            String emailToCleanup
-    ) {
-        if (paymentIdToCleanup != null) {
-            try {
-                log.info("Cleanup payment with id: {}", paymentIdToCleanup);
-                paymentDao.deletePaymentById(paymentIdToCleanup);
-            } catch (Exception e) {
-                log.warn("Failed to cleanup payment id {}: {}", paymentIdToCleanup, e.getMessage());
-            }
-        }
-
-        if (emailToCleanup != null && !emailToCleanup.isBlank()) {
-            try {
-                log.info("Cleanup user with email: {}", emailToCleanup);
-                userDao.deleteByEmail(emailToCleanup);
-            } catch (Exception e) {
-                log.warn("Failed to cleanup user {}: {}", emailToCleanup, e.getMessage());
-            }
-        }
+    /**
+     * Puts the database back to the snapshot taken when the embedded application started, removing everything a
+     * test created in one step. Call it from {@code @AfterEach}, or from {@code @AfterAll} for a class whose tests
+     * build on each other. It resets every user, so a class that calls it must be {@code @Isolated} from the
+     * concurrent suites; those reset only their own user by closing a {@link UserFixturePool.Lease}. Against an
+     * external server there is no database access and this does nothing.
+     */
+    public static void restoreDatabase() {
+        EmbeddedApi.snapshot().ifPresentOrElse(DatabaseSnapshot::restore,
+                () -> log.info("No embedded database to restore; data created by the test is kept"));
     }
 }
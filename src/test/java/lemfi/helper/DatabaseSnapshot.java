@@ -0,0 +1,113 @@
+package lemfi.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Copy of every application table taken once, right after the embedded application started, and put back in bulk
+ * between tests: each table is truncated and refilled from its {@code SNAPSHOT_} copy in a single JDBC batch.
+ * {@link #resetUser(long)} does the same for the rows of one user only, so tests working with different users can
+ * reset them while the others keep running.
+ * <p>
+ * Sequences are deliberately left alone, so rows created after a restore never take the id of a removed one and
+ * the id blocks the application has already pooled stay valid. Users that are in the snapshot keep their ids, though:
+ * whatever the application holds in memory for them (cached balances, idempotency keys) survives a restore or reset
+ * and has to be invalidated by the caller, as {@link UserFixturePool} does when a lease is given back.
+ * H2-specific, like the embedded application it serves.
+ */
+@Slf4j
+public class DatabaseSnapshot {
+
+    private static final String PREFIX = "SNAPSHOT_";
+    private static final String USERS = "USERS";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> tables;
+    private final List<String> userTables;
+
+    private DatabaseSnapshot(JdbcTemplate jdbcTemplate, List<String> tables, List<String> userTables) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tables = tables;
+        this.userTables = userTables;
+    }
+
+    public static DatabaseSnapshot capture(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES"
+                        + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE IN ('TABLE', 'BASE TABLE')"
+                        + " AND TABLE_NAME NOT LIKE '" + PREFIX + "%'", String.class);
+        for (String table : tables) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + PREFIX + table);
+            jdbcTemplate.execute("CREATE TABLE " + PREFIX + table + " AS SELECT * FROM " + table);
+        }
+        List<String> userTables = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+                        + " WHERE TABLE_SCHEMA = 'PUBLIC' AND COLUMN_NAME = 'USER_ID'"
+                        + " AND TABLE_NAME NOT LIKE '" + PREFIX + "%'", String.class);
+        log.info("Database snapshot captured for tables {}", tables);
+        return new DatabaseSnapshot(jdbcTemplate, tables, userTables);
+    }
+
+    public void restore() {
+        long started = System.nanoTime();
+        jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.addBatch("SET REFERENTIAL_INTEGRITY FALSE");
+                for (String table : tables) {
+                    statement.addBatch("TRUNCATE TABLE " + table);
+                    statement.addBatch("INSERT INTO " + table + " SELECT * FROM " + PREFIX + table);
+                }
+                statement.addBatch("SET REFERENTIAL_INTEGRITY TRUE");
+                return statement.executeBatch();
+            }
+        });
+        log.debug("Database snapshot restored in {} µs", (System.nanoTime() - started) / 1_000);
+    }
+
+    /**
+     * Puts back the snapshot rows of one user, its own row and every row with its {@code user_id}, in one
+     * transaction. A user that was not in the snapshot is removed.
+     */
+    public void resetUser(long userId) {
+        long started = System.nanoTime();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (String table : userTables) {
+                    update(connection, "DELETE FROM " + table + " WHERE USER_ID = ?", userId);
+                }
+                update(connection, "DELETE FROM " + USERS + " WHERE ID = ?", userId);
+                update(connection, "INSERT INTO " + USERS + " SELECT * FROM " + PREFIX + USERS + " WHERE ID = ?", userId);
+                for (String table : userTables) {
+                    update(connection, "INSERT INTO " + table + " SELECT * FROM " + PREFIX + table + " WHERE USER_ID = ?",
+                            userId);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        log.debug("User {} reset to the database snapshot in {} µs", userId, (System.nanoTime() - started) / 1_000);
+    }
+
+    private static void update(Connection connection, String sql, long userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, userId);
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package lemfi.helper;
+
+import com.lemfi.qa.HomeworkApplication;
+import lemfi.dao.payments.PaymentDao;
+import lemfi.dao.user.UserDao;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link HomeworkApplication} started inside the test JVM, for {@code ENVIROMENT=embedded}. It comes up on a random
+ * port with its own in-memory H2 the first time the properties are loaded, is shared by every test class after
+ * that, and stops with the JVM. Fixture users are seeded as soon as it is up (see {@link UserFixturePool}) and the
+ * database is snapshotted right after (see {@link DatabaseSnapshot}).
+ * The test DAOs are registered in it, so {@code @Autowired} DAO fields in the API suites are filled in
+ * (see {@link EmbeddedApiExtension}).
+ */
+@Slf4j
+@UtilityClass
+public class EmbeddedApi {
+
+    private static ConfigurableApplicationContext context;
+    private static DatabaseSnapshot snapshot;
+    private static UserFixturePool fixtures;
+
+    public static synchronized String start() {
+        if (context == null) {
+            long started = System.nanoTime();
+            context = new SpringApplicationBuilder(HomeworkApplication.class, UserDao.class, PaymentDao.class)
+                    .run(
+                            "--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:lemfi-api-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                            "--sql.statements.debug=true");
+            fixtures = UserFixturePool.seed(context, Integer.getInteger("fixtures.users", 16),
+                    Integer.getInteger("fixtures.payments", 10));
+            snapshot = DatabaseSnapshot.capture(context.getBean(DataSource.class));
+            log.info("Embedded API started on port {} in {} ms", port(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return "http://localhost:" + port();
+    }
+
+    public static synchronized Optional<ConfigurableApplicationContext> context() {
+        return Optional.ofNullable(context);
+    }
+
+    public static synchronized Optional<DatabaseSnapshot> snapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    public static synchronized Optional<UserFixturePool> fixtures() {
+        return Optional.ofNullable(fixtures);
+    }
+
+    private static String port() {
+        return context.getEnvironment().getProperty("local.server.port");
+    }
+}
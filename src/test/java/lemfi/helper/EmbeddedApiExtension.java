@@ -0,0 +1,21 @@
+package lemfi.helper;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+
+/**
+ * Autowires API test instances from the {@link EmbeddedApi} context, which is what their {@code @Autowired} DAO
+ * fields were written for. Registered through {@code META-INF/services}; a no-op against an external server.
+ */
+public class EmbeddedApiExtension implements TestInstancePostProcessor {
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) {
+        if (!testInstance.getClass().getName().startsWith("lemfi.")) {
+            return;
+        }
+        // In embedded mode loading the properties is what starts the application
+        PropertiesHelper.loadProperties();
+        EmbeddedApi.context().ifPresent(app -> app.getAutowireCapableBeanFactory().autowireBean(testInstance));
+    }
+}
@@ -14,7 +14,7 @@ public class PropertiesHelper {
             environment = "local";
         }
         InputStream stream = Thread.currentThread().getContextClassLoader()
-                .getResourceAsStream("application-" + environment + "properties");
+                .getResourceAsStream("application-" + environment + ".properties");
         if (stream == null) {
             throw new RuntimeException("Resource not found: application.properties");
         }
@@ -31,6 +31,9 @@ public class PropertiesHelper {
                 log.info("Failed to close inputStream");
             }
         }
+        if (Boolean.parseBoolean(properties.getProperty("api.embedded"))) {
+            properties.setProperty("api.url", EmbeddedApi.start());
+        }
         return properties;
     }
 }
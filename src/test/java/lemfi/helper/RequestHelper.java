@@ -2,52 +2,146 @@ package lemfi.helper;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
 
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @UtilityClass
 public class RequestHelper {
 
+    private static final int MAX_CONNECTIONS = 256;
+    private static final int ASYNC_THREADS = 32;
+
+    // One pooled keep-alive client for every request. Cookies are never kept by the client itself: sessions
+    // belong to ApiSession, otherwise users on different threads would share a JSESSIONID.
+    private static final RestAssuredConfig CONFIG = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig()
+                    .httpClientFactory(RequestHelper::pooledHttpClient)
+                    .reuseHttpClientInstance());
+
+    // A pooled connection only goes back to the pool once its response body is read; callers that look at the
+    // status code alone would otherwise leak one connection per request.
+    private static final Filter READ_BODY = (request, response, context) -> {
+        Response result = context.next(request, response);
+        result.asByteArray();
+        return result;
+    };
+
+    private static final RequestSpecification BASE = new RequestSpecBuilder()
+            .setConfig(CONFIG)
+            .addFilter(READ_BODY)
+            .build();
+
+    private static final RequestSpecification REPORTED = new RequestSpecBuilder()
+            .addRequestSpecification(BASE)
+            .addFilter(AllureRestAssuredHelper.filter())
+            .build();
+
+    private static final AtomicInteger ASYNC_THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService ASYNC = Executors.newFixedThreadPool(ASYNC_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "request-async-" + ASYNC_THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @SuppressWarnings("deprecation")
+    private static HttpClient pooledHttpClient() {
+        PoolingClientConnectionManager connections = new PoolingClientConnectionManager();
+        connections.setMaxTotal(MAX_CONNECTIONS);
+        connections.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+        DefaultHttpClient client = new DefaultHttpClient(connections);
+        client.getParams().setParameter(ClientPNames.COOKIE_POLICY, CookiePolicy.IGNORE_COOKIES);
+        return client;
+    }
+
     public static Response postRequest(URI uri, Object object) throws JsonProcessingException {
-        String json = ObjectMapperHelper.getMapper().writeValueAsString(object);
-        log.info("{} >> {}", uri, json);
+        byte[] json = ObjectMapperHelper.getMapper().writeValueAsBytes(object);
+        log.info("{} >> {}", uri, new String(json, StandardCharsets.UTF_8));
         return RestAssured
-                .given()
-                .filter(AllureRestAssuredHelper.filter())
+                .given(REPORTED)
+                .filter(ApiSession.current())
                 .contentType(ContentType.JSON)
                 .body(json)
-                .when()
-                .post(uri)
-                .then()
-                .extract()
-                .response();
+                .post(uri);
     }
 
     public static Response postRequestWithoutBody(URI uri) throws JsonProcessingException {
         return RestAssured
-                .given()
+                .given(BASE)
+                .filter(ApiSession.current())
                 .contentType(ContentType.JSON)
-                .when()
-                .post(uri)
-                .then()
-                .extract()
-                .response();
+                .post(uri);
     }
 
     public static Response getRequest(URI uri) {
         log.info("{} >> GET", uri);
         return RestAssured
-                .given()
-                .filter(AllureRestAssuredHelper.filter())
-                .when()
-                .get(uri)
-                .then()
-                .extract()
-                .response();
+                .given(REPORTED)
+                .filter(ApiSession.current())
+                .get(uri);
+    }
+
+    /**
+     * Session-bound POST for load generation: reuses the caller's session cookie and skips the Allure
+     * attachment, which would otherwise keep every request of a load run in memory.
+     */
+    public static Response postRequest(URI uri, Object object, ApiSession session) throws JsonProcessingException {
+        byte[] json = ObjectMapperHelper.getMapper().writeValueAsBytes(object);
+        log.debug("{} >> {} bytes", uri, json.length);
+        return RestAssured
+                .given(BASE)
+                .filter(session)
+                .contentType(ContentType.JSON)
+                .body(json)
+                .post(uri);
+    }
+
+    /** Session-bound GET counterpart of {@link #postRequest(URI, Object, ApiSession)}. */
+    public static Response getRequest(URI uri, ApiSession session) {
+        log.debug("{} >> GET", uri);
+        return RestAssured
+                .given(BASE)
+                .filter(session)
+                .get(uri);
+    }
+
+    /**
+     * Runs {@link #postRequest(URI, Object, ApiSession)} in the calling thread's session on a shared pool.
+     * Like the other session-bound calls it is not attached to Allure, which only tracks the test thread.
+     */
+    public static CompletableFuture<Response> postRequestAsync(URI uri, Object object) {
+        ApiSession session = ApiSession.current();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return postRequest(uri, object, session);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ASYNC);
+    }
+
+    public static CompletableFuture<Response> getRequestAsync(URI uri) {
+        ApiSession session = ApiSession.current();
+        return CompletableFuture.supplyAsync(() -> getRequest(uri, session), ASYNC);
     }
 }
@@ -0,0 +1,39 @@
+package lemfi.helper;
+
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the SQL statement count the app reports per call when started with
+ * {@code SQL_STATEMENTS_DEBUG=true}. Budgets are configured on the app side, per endpoint.
+ */
+@Slf4j
+@UtilityClass
+public class SqlStatementAssertions {
+
+    public static final String COUNT_HEADER = "X-Sql-Statements";
+    public static final String BUDGET_HEADER = "X-Sql-Statement-Budget";
+
+    /**
+     * @return number of statements the call issued
+     */
+    public static int assertWithinStatementBudget(Response response) {
+        String count = response.getHeader(COUNT_HEADER);
+        String budget = response.getHeader(BUDGET_HEADER);
+        assertNotNull(count, COUNT_HEADER + " header is missing, start the app with SQL_STATEMENTS_DEBUG=true");
+        assertNotNull(budget, BUDGET_HEADER + " header is missing, start the app with SQL_STATEMENTS_DEBUG=true");
+
+        Allure.parameter("sqlStatements", count);
+        Allure.parameter("sqlStatementBudget", budget);
+        log.info("SQL statements: {}, budget: {}", count, budget);
+
+        assertTrue(Integer.parseInt(count) <= Integer.parseInt(budget),
+                "Call issued " + count + " SQL statements, budget is " + budget);
+        return Integer.parseInt(count);
+    }
+}
@@ -0,0 +1,282 @@
+package lemfi.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lemfi.qa.UserAuthenticationToken;
+import com.lemfi.qa.domain.dto.TransactionRequestDTO;
+import com.lemfi.qa.domain.model.TransactionType;
+import com.lemfi.qa.repository.PaymentBatchRepository;
+import com.lemfi.qa.repository.SequenceIdAllocator;
+import com.lemfi.qa.service.BalanceCache;
+import com.lemfi.qa.service.IdempotencyKeyCache;
+import com.lemfi.qa.validation.RegisteredEmailFilter;
+import io.restassured.response.Response;
+import lemfi.model.payment.Amount;
+import lemfi.model.payment.Payment;
+import lemfi.model.payment.PaymentRequester;
+import lemfi.model.personalDataUpdate.PersonalData;
+import lemfi.model.personalDataUpdate.PersonalDataRequester;
+import lemfi.model.signUp.Registration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Context;
+import org.apache.catalina.Manager;
+import org.apache.catalina.Session;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.lemfi.qa.TestFixtures.transactionRequest;
+import static com.lemfi.qa.domain.entity.PooledSequenceGenerator.USERS_SEQUENCE;
+import static com.lemfi.qa.mapper.MinorUnitMapper.toMinorUnits;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Users written straight into the embedded database before its snapshot is taken, so a test can borrow one that is
+ * already registered instead of signing up its own. Every profile gets {@code fixtures.users} users (16 by
+ * default); {@link Profile#WITH_HISTORY} users also have personal data and {@code fixtures.payments} EUR credits
+ * (10 by default) booked over past months, with matching balances and monthly summaries. All of it goes in as a
+ * handful of {@link JdbcTemplate} batches.
+ * <p>
+ * {@link #lease(Profile)} hands a user to exactly one test at a time and logs the calling thread in as that user
+ * (see {@link ApiSession}). Closing the lease puts the user's rows back to the snapshot and returns it to the pool,
+ * without touching anyone else's data, which is what lets the API suites run their tests in parallel. The sign-up
+ * endpoint has no login counterpart, so the session is created directly in the embedded Tomcat.
+ * <p>
+ * Against an external server there is no database access: a lease signs a new user up over HTTP, adds the history
+ * through the API when the profile asks for one, and closing it does nothing.
+ */
+@Slf4j
+public class UserFixturePool {
+
+    public enum Profile {
+        /** Registered, no personal data, no payments. */
+        FRESH,
+        /** Personal data filled in and a payment history with balances and summaries. */
+        WITH_HISTORY
+    }
+
+    private static final String CURRENCY = "EUR";
+    private static final long LEASE_TIMEOUT_SECONDS = 60;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, email, password, first_name, surname, personal_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BALANCE =
+            "INSERT INTO user_balances (user_id, currency, amount_minor) VALUES (?, ?, ?)";
+    private static final String INSERT_SUMMARY = "INSERT INTO payment_summaries "
+            + "(user_id, type, currency, booking_month, payment_count, amount_minor) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final Map<Profile, BlockingQueue<Fixture>> available = new EnumMap<>(Profile.class);
+    private final ConfigurableApplicationContext context;
+    private final Manager sessionManager;
+
+    private UserFixturePool(ConfigurableApplicationContext context) {
+        this.context = context;
+        var webServer = (TomcatWebServer) ((ServletWebServerApplicationContext) context).getWebServer();
+        this.sessionManager = ((Context) webServer.getTomcat().getHost().findChildren()[0]).getManager();
+        for (Profile profile : Profile.values()) {
+            available.put(profile, new LinkedBlockingQueue<>());
+        }
+    }
+
+    /**
+     * Inserts the fixture users into the embedded application's database. Called by {@link EmbeddedApi} before the
+     * snapshot is captured, so the fixtures are part of it.
+     */
+    static UserFixturePool seed(ConfigurableApplicationContext context, int usersPerProfile, int paymentsPerUser) {
+        long started = System.nanoTime();
+        var pool = new UserFixturePool(context);
+        pool.insert(Profile.FRESH, usersPerProfile, 0);
+        pool.insert(Profile.WITH_HISTORY, usersPerProfile, paymentsPerUser);
+        log.info("Seeded {} fixture users per profile ({} payments each with history) in {} ms", usersPerProfile,
+                paymentsPerUser, (System.nanoTime() - started) / 1_000_000);
+        return pool;
+    }
+
+    /**
+     * Borrows a user of the given profile and makes it the current thread's {@link ApiSession}. Waits when every
+     * user of the profile is leased.
+     */
+    public static Lease lease(Profile profile) {
+        return EmbeddedApi.fixtures()
+                .map(pool -> pool.take(profile))
+                .orElseGet(() -> signUp(profile));
+    }
+
+    private void insert(Profile profile, int users, int paymentsPerUser) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long[] ids = context.getBean(SequenceIdAllocator.class).allocate(USERS_SEQUENCE, users);
+
+        List<Fixture> fixtures = new ArrayList<>(users);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (long id : ids) {
+            var fixture = new Fixture(id, "fixture-" + id + "@lemfi.test", Registration.ofRandom().getPassword(), profile);
+            PersonalData personalData = profile == Profile.WITH_HISTORY ? PersonalData.ofRandom() : PersonalData.builder().build();
+            userRows.add(new Object[]{id, fixture.email(), fixture.password(), personalData.getFirstName(),
+                    personalData.getSurname(), personalData.getPersonalId()});
+            fixtures.add(fixture);
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, userRows);
+
+        if (paymentsPerUser > 0) {
+            insertHistories(jdbcTemplate, ids, paymentsPerUser);
+        }
+
+        RegisteredEmailFilter registeredEmails = context.getBean(RegisteredEmailFilter.class);
+        fixtures.forEach(fixture -> registeredEmails.registered(fixture.email()));
+        available.get(profile).addAll(fixtures);
+    }
+
+    /**
+     * Payments go through {@link PaymentBatchRepository}, like a bulk import; balances and summaries are what the
+     * add-funds endpoint would have left behind for the same credits.
+     */
+    private void insertHistories(JdbcTemplate jdbcTemplate, long[] ids, int paymentsPerUser) {
+        PaymentBatchRepository paymentBatchRepository = context.getBean(PaymentBatchRepository.class);
+        List<Object[]> balanceRows = new ArrayList<>(ids.length);
+        List<Object[]> summaryRows = new ArrayList<>();
+
+        for (long id : ids) {
+            List<TransactionRequestDTO> requests = new ArrayList<>(paymentsPerUser);
+            Map<LocalDate, long[]> months = new HashMap<>();
+            long balance = 0;
+            for (int i = 0; i < paymentsPerUser; i++) {
+                TransactionRequestDTO request = transactionRequest(historyAmount(), CURRENCY, historyBookingDate(i));
+                long amountMinor = toMinorUnits(request.getAmount().getAmount(), CURRENCY);
+                long[] month = months.computeIfAbsent(request.getBookingDate().withDayOfMonth(1), m -> new long[2]);
+                month[0]++;
+                month[1] += amountMinor;
+                balance += amountMinor;
+                requests.add(request);
+            }
+            paymentBatchRepository.insertPayments(id, TransactionType.FUNDING, requests);
+
+            balanceRows.add(new Object[]{id, CURRENCY, balance});
+            // Payment.type is mapped without @Enumerated, so it is stored as the ordinal
+            months.forEach((month, total) -> summaryRows.add(new Object[]{id, TransactionType.FUNDING.ordinal(), CURRENCY,
+                    Date.valueOf(month), total[0], total[1]}));
+        }
+        jdbcTemplate.batchUpdate(INSERT_BALANCE, balanceRows);
+        jdbcTemplate.batchUpdate(INSERT_SUMMARY, summaryRows);
+    }
+
+    private Lease take(Profile profile) {
+        Fixture fixture;
+        try {
+            fixture = available.get(profile).poll(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + profile + " fixture user", e);
+        }
+        if (fixture == null) {
+            throw new IllegalStateException("No " + profile + " fixture user returned within " + LEASE_TIMEOUT_SECONDS
+                    + " s; raise fixtures.users or close leases in @AfterEach");
+        }
+
+        Session session = sessionManager.createSession(null);
+        session.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(new UserAuthenticationToken(fixture.id())));
+        ApiSession.use(new ApiSession(session.getIdInternal()));
+
+        return new Lease(fixture, () -> giveBack(fixture, session));
+    }
+
+    private void giveBack(Fixture fixture, Session session) {
+        session.expire();
+        ApiSession.startNew();
+        EmbeddedApi.snapshot().ifPresent(snapshot -> snapshot.resetUser(fixture.id()));
+        context.getBean(BalanceCache.class).refreshAfterCommit(fixture.id());
+        context.getBean(IdempotencyKeyCache.class).invalidateUser(fixture.id());
+        available.get(fixture.profile()).add(fixture);
+    }
+
+    private static Lease signUp(Profile profile) {
+        try {
+            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
+            Registration registration = result.request();
+            var fixture = new Fixture(result.response().jsonPath().getLong("user.id"), registration.getEmail(),
+                    registration.getPassword(), profile);
+
+            if (profile == Profile.WITH_HISTORY) {
+                Response update = PersonalDataRequester.updatePersonalData(PersonalData.ofRandom());
+                assertEquals(201, update.getStatusCode(), "Fixture personal data update must succeed");
+                int payments = Integer.getInteger("fixtures.payments", 10);
+                for (int i = 0; i < payments; i++) {
+                    Response payment = PaymentRequester.createPayment(historyPayment(i));
+                    assertEquals(200, payment.getStatusCode(), "Fixture payment must be created");
+                }
+            }
+            return new Lease(fixture, () -> { });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not set up a " + profile + " user", e);
+        }
+    }
+
+    /** The {@code index}-th credit of a history: a random EUR amount booked {@code index} months ago. */
+    private static Payment historyPayment(int index) {
+        return Payment.ofRandom()
+                .toBuilder()
+                .amount(Amount.builder().currency(CURRENCY).amount(historyAmount()).build())
+                .bookingDate(historyBookingDate(index))
+                .build();
+    }
+
+    private static BigDecimal historyAmount() {
+        return BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(100, 100_000), 2);
+    }
+
+    private static LocalDate historyBookingDate(int index) {
+        return LocalDate.now().minusMonths(index);
+    }
+
+    private record Fixture(long id, String email, String password, Profile profile) {
+    }
+
+    /**
+     * A fixture user borrowed by one test. Close it in {@code @AfterEach}; the user's rows are reset and it goes back
+     * to the pool.
+     */
+    @Getter
+    public static final class Lease implements AutoCloseable {
+        private final long userId;
+        private final String email;
+        private final String password;
+        private final Profile profile;
+        @Getter(AccessLevel.NONE)
+        private final Runnable release;
+        @Getter(AccessLevel.NONE)
+        private boolean closed;
+
+        private Lease(Fixture fixture, Runnable release) {
+            this.userId = fixture.id();
+            this.email = fixture.email();
+            this.password = fixture.password();
+            this.profile = fixture.profile();
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package lemfi.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link LoadScenario} against the API through the regular requesters.
+ * <p>
+ * The schedule is open-loop: request {@code i} is due at {@code start + i / rate} and is handed to the worker
+ * pool at that moment whether or not earlier requests have returned. Latency is taken from the due time, so a
+ * stalled server shows up as queueing delay in the histograms instead of as a quietly lower request rate.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    public ScenarioReport run(LoadScenario scenario) throws Exception {
+        List<VirtualUser> users = signUp(scenario.getVirtualUsers(), scenario.getPaymentsPerUser());
+        Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+        scenario.getMix().keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(scenario.getMaxConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "load-" + scenario.getName() + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        SplittableRandom random = new SplittableRandom(scenario.getSeed());
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / scenario.getRatePerSecond());
+        long durationNanos = scenario.getDuration().toNanos();
+
+        log.info("Scenario {}: {} req/s for {} after {} warm-up, {} virtual users",
+                scenario.getName(), scenario.getRatePerSecond(), scenario.getDuration(), scenario.getWarmup(),
+                users.size());
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measuredFrom = start + scenario.getWarmup().toNanos();
+        long measuredTo = measuredFrom + durationNanos;
+        long scheduled = 0;
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= measuredTo) {
+                break;
+            }
+            for (long wait = intendedStart - System.nanoTime(); wait > 0; wait = intendedStart - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadOperation operation = scenario.pick(random);
+            VirtualUser user = users.get((int) (i % users.size()));
+            OperationStats target = intendedStart >= measuredFrom ? stats.get(operation) : null;
+            if (target != null) {
+                scheduled++;
+            }
+            workers.execute(() -> execute(operation, user, intendedStart, target));
+        }
+
+        workers.shutdown();
+        long abandoned = 0;
+        if (!workers.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            abandoned = workers.shutdownNow().size();
+            log.warn("Scenario {}: {} requests not started within {}s of the schedule ending",
+                    scenario.getName(), abandoned, DRAIN_TIMEOUT_SECONDS);
+        }
+
+        OperationStats total = new OperationStats();
+        stats.values().forEach(operationStats -> {
+            total.responseTime.add(operationStats.responseTime);
+            total.serviceTime.add(operationStats.serviceTime);
+            operationStats.errors.forEach((cause, count) -> total.errors
+                    .computeIfAbsent(cause, c -> new LongAdder()).add(count.sum()));
+        });
+        Map<LoadOperation, ScenarioReport.OperationReport> operations = new EnumMap<>(LoadOperation.class);
+        stats.forEach((operation, operationStats) ->
+                operations.put(operation, ScenarioReport.OperationReport.of(operationStats)));
+        double durationSeconds = durationNanos / 1e9;
+
+        return ScenarioReport.builder()
+                .scenario(scenario.getName())
+                .startedAt(startedAt)
+                .targetRatePerSecond(scenario.getRatePerSecond())
+                .achievedRatePerSecond(total.serviceTime.getTotalCount() / durationSeconds)
+                .durationSeconds(durationSeconds)
+                .virtualUsers(users.size())
+                .maxConcurrency(scenario.getMaxConcurrency())
+                .scheduled(scheduled)
+                .abandoned(abandoned)
+                .total(ScenarioReport.OperationReport.of(total))
+                .operations(operations)
+                .build();
+    }
+
+    private static List<VirtualUser> signUp(int count, int paymentsPerUser) throws Exception {
+        List<VirtualUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            VirtualUser user = VirtualUser.signUp();
+            user.addPayments(paymentsPerUser);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static void execute(LoadOperation operation, VirtualUser user, long intendedStart, OperationStats stats) {
+        long actualStart = System.nanoTime();
+        String error;
+        try {
+            int status = operation.execute(user).getStatusCode();
+            error = status < 400 ? null : "HTTP " + status;
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName();
+        }
+        if (stats == null) {
+            return;
+        }
+        stats.record(intendedStart, actualStart, System.nanoTime());
+        if (error != null) {
+            stats.error(error);
+        }
+    }
+}
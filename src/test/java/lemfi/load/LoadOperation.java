@@ -0,0 +1,46 @@
+package lemfi.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.restassured.response.Response;
+import lemfi.helper.ApiSession;
+import lemfi.model.payment.Amount;
+import lemfi.model.payment.Payment;
+import lemfi.model.payment.PaymentRequester;
+import lemfi.model.signUp.Registration;
+import lemfi.model.signUp.SignUpRequester;
+
+/**
+ * Calls a load scenario can mix. Everything except {@link #SIGN_UP} runs in the session of a {@link VirtualUser};
+ * sign-up registers a fresh user each time, as a new visitor would.
+ */
+public enum LoadOperation {
+    SIGN_UP {
+        @Override
+        Response execute(VirtualUser user) throws JsonProcessingException {
+            return SignUpRequester.signUp(Registration.ofRandom(), new ApiSession());
+        }
+    },
+    ADD_FUNDS {
+        @Override
+        Response execute(VirtualUser user) throws JsonProcessingException {
+            Payment payment = Payment.ofRandom().toBuilder()
+                    .amount(Amount.ofRandom().toBuilder().currency("EUR").build())
+                    .build();
+            return PaymentRequester.createPayment(payment, user.getSession());
+        }
+    },
+    BALANCE {
+        @Override
+        Response execute(VirtualUser user) {
+            return PaymentRequester.getBalance(user.getSession());
+        }
+    },
+    PAYMENTS {
+        @Override
+        Response execute(VirtualUser user) {
+            return PaymentRequester.getPayments(user.getSession());
+        }
+    };
+
+    abstract Response execute(VirtualUser user) throws JsonProcessingException;
+}
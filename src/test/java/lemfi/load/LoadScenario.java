@@ -0,0 +1,51 @@
+package lemfi.load;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * An open-loop load profile: requests are started at a fixed {@link #ratePerSecond} regardless of how fast the
+ * previous ones complete, and each one is drawn from the weighted {@link #mix}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class LoadScenario {
+    @NonNull
+    String name;
+    double ratePerSecond;
+    @NonNull
+    Duration duration;
+    /** Requests started during the warm-up are executed but left out of the report. */
+    @Builder.Default
+    Duration warmup = Duration.ZERO;
+    @Builder.Default
+    int virtualUsers = 20;
+    /** Payments each virtual user is credited with before the schedule starts, so reads have history to return. */
+    @Builder.Default
+    int paymentsPerUser = 0;
+    /** Upper bound on requests in flight; when it is reached the wait is counted as latency, never as a pause. */
+    @Builder.Default
+    int maxConcurrency = 64;
+    @Builder.Default
+    long seed = 42;
+    @Singular("operation")
+    Map<LoadOperation, Integer> mix;
+
+    LoadOperation pick(SplittableRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+        for (Map.Entry<LoadOperation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix in scenario " + name);
+    }
+}
@@ -0,0 +1,31 @@
+package lemfi.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one operation in nanoseconds. {@link #responseTime} is measured from the moment the schedule
+ * intended the request to start, so time spent queueing behind a slow server is not silently dropped
+ * (coordinated omission); {@link #serviceTime} is measured from the actual send and shows what the server took.
+ */
+class OperationStats {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(long intendedStart, long actualStart, long end) {
+        responseTime.recordValue(Math.min(end - intendedStart, HIGHEST_TRACKABLE_NANOS));
+        serviceTime.recordValue(Math.min(end - actualStart, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    void error(String cause) {
+        errors.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,87 @@
+package lemfi.load;
+
+import lemfi.helper.ObjectMapperHelper;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * p50/p99 latency and throughput of one scenario, kept under version control as
+ * {@code <baseline dir>/<scenario>.json} and compared against by {@link RegressionGate}.
+ * {@link #SCHEMA_VERSION} changes whenever the meaning of a field does, which invalidates older baselines.
+ */
+@Value
+@Builder
+@Jacksonized
+public class PerformanceBaseline {
+    public static final int SCHEMA_VERSION = 1;
+    public static final String TOTAL = "TOTAL";
+
+    int schemaVersion;
+    String scenario;
+    Instant recordedAt;
+    /** Where the numbers were taken; baselines only compare meaningfully on the same kind of machine. */
+    String environment;
+    double ratePerSecond;
+    double durationSeconds;
+    /** Per {@link LoadOperation} name, plus {@link #TOTAL} for the whole mix. */
+    Map<String, Metrics> operations;
+
+    @Value
+    @Builder
+    @Jacksonized
+    public static class Metrics {
+        double p50Ms;
+        double p99Ms;
+        double throughputPerSecond;
+    }
+
+    public static PerformanceBaseline of(ScenarioReport report) {
+        Map<String, Metrics> operations = new LinkedHashMap<>();
+        report.getOperations().forEach((operation, operationReport) ->
+                operations.put(operation.name(), metrics(operationReport, report.getDurationSeconds())));
+        operations.put(TOTAL, metrics(report.getTotal(), report.getDurationSeconds()));
+        return PerformanceBaseline.builder()
+                .schemaVersion(SCHEMA_VERSION)
+                .scenario(report.getScenario())
+                .recordedAt(report.getStartedAt())
+                .environment(String.format("java %s, %s %s, %d cpus", System.getProperty("java.version"),
+                        System.getProperty("os.name"), System.getProperty("os.arch"),
+                        Runtime.getRuntime().availableProcessors()))
+                .ratePerSecond(report.getTargetRatePerSecond())
+                .durationSeconds(report.getDurationSeconds())
+                .operations(operations)
+                .build();
+    }
+
+    private static Metrics metrics(ScenarioReport.OperationReport report, double durationSeconds) {
+        return Metrics.builder()
+                .p50Ms(report.getResponseTimeMs().getP50())
+                .p99Ms(report.getResponseTimeMs().getP99())
+                .throughputPerSecond(report.getCount() / durationSeconds)
+                .build();
+    }
+
+    public static Optional<PerformanceBaseline> read(Path directory, String scenario) throws IOException {
+        Path file = directory.resolve(scenario + ".json");
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(ObjectMapperHelper.getMapper().readValue(file.toFile(), PerformanceBaseline.class));
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(scenario + ".json");
+        ObjectMapperHelper.getMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        return file;
+    }
+}
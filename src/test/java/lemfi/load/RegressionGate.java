@@ -0,0 +1,102 @@
+package lemfi.load;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares a fresh run with its {@link PerformanceBaseline}. A latency metric regresses when it grows by more than
+ * its relative tolerance <em>and</em> by more than {@link #minLatencyDeltaMs}, so sub-millisecond jitter on fast
+ * endpoints cannot fail the build; throughput regresses when it drops by more than its tolerance.
+ */
+@Value
+@Builder
+public class RegressionGate {
+    @Builder.Default
+    double p50Tolerance = 0.25;
+    @Builder.Default
+    double p99Tolerance = 0.50;
+    @Builder.Default
+    double throughputTolerance = 0.10;
+    @Builder.Default
+    double minLatencyDeltaMs = 5;
+
+    /** Reads {@code perf.tolerance.p50}, {@code .p99}, {@code .throughput} and {@code perf.min-latency-delta-ms}. */
+    public static RegressionGate fromSystemProperties() {
+        RegressionGate defaults = RegressionGate.builder().build();
+        return RegressionGate.builder()
+                .p50Tolerance(doubleProperty("perf.tolerance.p50", defaults.p50Tolerance))
+                .p99Tolerance(doubleProperty("perf.tolerance.p99", defaults.p99Tolerance))
+                .throughputTolerance(doubleProperty("perf.tolerance.throughput", defaults.throughputTolerance))
+                .minLatencyDeltaMs(doubleProperty("perf.min-latency-delta-ms", defaults.minLatencyDeltaMs))
+                .build();
+    }
+
+    public RegressionReport compare(PerformanceBaseline baseline, PerformanceBaseline current) {
+        List<String> problems = new ArrayList<>();
+        if (baseline.getSchemaVersion() != PerformanceBaseline.SCHEMA_VERSION) {
+            problems.add("baseline schema version " + baseline.getSchemaVersion() + " is not "
+                    + PerformanceBaseline.SCHEMA_VERSION);
+        }
+        if (baseline.getRatePerSecond() != current.getRatePerSecond()
+                || baseline.getDurationSeconds() != current.getDurationSeconds()) {
+            problems.add("scenario changed since the baseline was recorded");
+        }
+
+        List<RegressionReport.MetricDiff> diffs = new ArrayList<>();
+        for (Map.Entry<String, PerformanceBaseline.Metrics> entry : current.getOperations().entrySet()) {
+            PerformanceBaseline.Metrics before = baseline.getOperations().get(entry.getKey());
+            if (before == null) {
+                problems.add("no baseline for " + entry.getKey());
+                continue;
+            }
+            PerformanceBaseline.Metrics after = entry.getValue();
+            diffs.add(latency(entry.getKey(), "p50Ms", before, after, PerformanceBaseline.Metrics::getP50Ms,
+                    p50Tolerance));
+            diffs.add(latency(entry.getKey(), "p99Ms", before, after, PerformanceBaseline.Metrics::getP99Ms,
+                    p99Tolerance));
+            diffs.add(throughput(entry.getKey(), before, after));
+        }
+        return RegressionReport.builder()
+                .scenario(current.getScenario())
+                .baselineRecordedAt(baseline.getRecordedAt())
+                .baselineEnvironment(baseline.getEnvironment())
+                .currentRecordedAt(current.getRecordedAt())
+                .currentEnvironment(current.getEnvironment())
+                .problems(problems)
+                .diffs(diffs)
+                .build();
+    }
+
+    private RegressionReport.MetricDiff latency(String operation, String metric, PerformanceBaseline.Metrics before,
+                                                PerformanceBaseline.Metrics after,
+                                                ToDoubleFunction<PerformanceBaseline.Metrics> value,
+                                                double tolerance) {
+        double was = value.applyAsDouble(before);
+        double now = value.applyAsDouble(after);
+        boolean regressed = now > was * (1 + tolerance) && now - was > minLatencyDeltaMs;
+        return new RegressionReport.MetricDiff(operation, metric, was, now, change(was, now), tolerance, regressed);
+    }
+
+    private RegressionReport.MetricDiff throughput(String operation, PerformanceBaseline.Metrics before,
+                                                   PerformanceBaseline.Metrics after) {
+        double was = before.getThroughputPerSecond();
+        double now = after.getThroughputPerSecond();
+        boolean regressed = now < was * (1 - throughputTolerance);
+        return new RegressionReport.MetricDiff(operation, "throughputPerSecond", was, now, change(was, now),
+                throughputTolerance, regressed);
+    }
+
+    private static double change(double was, double now) {
+        return was == 0 ? 0 : (now - was) / was;
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,79 @@
+package lemfi.load;
+
+import lemfi.helper.ObjectMapperHelper;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Metric-by-metric diff between a run and its baseline, written as {@code <scenario>-diff.json} for tooling and
+ * {@code <scenario>-diff.md} for people.
+ */
+@Value
+@Builder
+public class RegressionReport {
+    String scenario;
+    Instant baselineRecordedAt;
+    String baselineEnvironment;
+    Instant currentRecordedAt;
+    String currentEnvironment;
+    /** Reasons the comparison itself is not trustworthy; any entry fails the gate. */
+    List<String> problems;
+    List<MetricDiff> diffs;
+
+    @Value
+    public static class MetricDiff {
+        String operation;
+        String metric;
+        double baseline;
+        double current;
+        /** Relative change, e.g. {@code 0.12} for 12% higher than the baseline. */
+        double change;
+        double tolerance;
+        boolean regressed;
+    }
+
+    public boolean isFailed() {
+        return !problems.isEmpty() || diffs.stream().anyMatch(MetricDiff::isRegressed);
+    }
+
+    public String summary() {
+        List<String> lines = diffs.stream()
+                .filter(MetricDiff::isRegressed)
+                .map(diff -> String.format("%s %s: %.2f -> %.2f (%+.1f%%, tolerance %.0f%%)", diff.getOperation(),
+                        diff.getMetric(), diff.getBaseline(), diff.getCurrent(), diff.getChange() * 100,
+                        diff.getTolerance() * 100))
+                .collect(Collectors.toList());
+        lines.addAll(0, problems);
+        return scenario + ": " + (lines.isEmpty() ? "no regressions" : String.join("; ", lines));
+    }
+
+    public String toMarkdown() {
+        StringBuilder markdown = new StringBuilder()
+                .append("# ").append(scenario).append(" vs baseline\n\n")
+                .append("Baseline: ").append(baselineRecordedAt).append(" (").append(baselineEnvironment).append(")\n")
+                .append("Current: ").append(currentRecordedAt).append(" (").append(currentEnvironment).append(")\n\n");
+        problems.forEach(problem -> markdown.append("**").append(problem).append("**\n\n"));
+        markdown.append("| Operation | Metric | Baseline | Current | Change | Tolerance | |\n")
+                .append("|---|---|---:|---:|---:|---:|---|\n");
+        diffs.forEach(diff -> markdown.append(String.format("| %s | %s | %.2f | %.2f | %+.1f%% | %.0f%% | %s |\n",
+                diff.getOperation(), diff.getMetric(), diff.getBaseline(), diff.getCurrent(), diff.getChange() * 100,
+                diff.getTolerance() * 100, diff.isRegressed() ? "REGRESSED" : "ok")));
+        return markdown.toString();
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ObjectMapperHelper.getMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(directory.resolve(scenario + "-diff.json").toFile(), this);
+        Path markdown = directory.resolve(scenario + "-diff.md");
+        Files.writeString(markdown, toMarkdown());
+        return markdown;
+    }
+}
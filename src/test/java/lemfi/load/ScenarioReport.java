@@ -0,0 +1,84 @@
+package lemfi.load;
+
+import lemfi.helper.ObjectMapperHelper;
+import lombok.Builder;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Machine-readable outcome of one {@link LoadScenario}, written as JSON next to the other build reports.
+ * Latencies are in milliseconds; {@code responseTimeMs} is corrected for coordinated omission.
+ */
+@Value
+@Builder
+public class ScenarioReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    String scenario;
+    Instant startedAt;
+    double targetRatePerSecond;
+    double achievedRatePerSecond;
+    double durationSeconds;
+    int virtualUsers;
+    int maxConcurrency;
+    long scheduled;
+    /** Requests still in flight when the drain timeout ran out; they are in neither histograms nor errors. */
+    long abandoned;
+    OperationReport total;
+    Map<LoadOperation, OperationReport> operations;
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(scenario + ".json");
+        ObjectMapperHelper.getMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        return file;
+    }
+
+    @Value
+    public static class OperationReport {
+        long count;
+        long errors;
+        Map<String, Long> errorsByCause;
+        Percentiles responseTimeMs;
+        Percentiles serviceTimeMs;
+
+        static OperationReport of(OperationStats stats) {
+            Map<String, Long> errorsByCause = new TreeMap<>();
+            stats.errors.forEach((cause, count) -> errorsByCause.put(cause, count.sum()));
+            return new OperationReport(
+                    stats.serviceTime.getTotalCount(),
+                    stats.errors.values().stream().mapToLong(LongAdder::sum).sum(),
+                    errorsByCause,
+                    Percentiles.of(stats.responseTime),
+                    Percentiles.of(stats.serviceTime));
+        }
+    }
+
+    @Value
+    public static class Percentiles {
+        double mean;
+        double p50;
+        double p90;
+        double p99;
+        double p999;
+        double max;
+
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(
+                    histogram.getMean() / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI);
+        }
+    }
+}
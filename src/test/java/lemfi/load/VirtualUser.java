@@ -0,0 +1,38 @@
+package lemfi.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.restassured.response.Response;
+import lemfi.helper.ApiSession;
+import lemfi.model.signUp.Registration;
+import lemfi.model.signUp.SignUpRequester;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A signed-up user whose session cookie is shared by every request the load generator issues on its behalf.
+ */
+@Getter
+@RequiredArgsConstructor
+public class VirtualUser {
+    private final Registration registration;
+    private final ApiSession session;
+
+    public static VirtualUser signUp() throws JsonProcessingException {
+        Registration registration = Registration.ofRandom();
+        ApiSession session = new ApiSession();
+        Response response = SignUpRequester.signUp(registration, session);
+        if (response.getStatusCode() != 200 || !session.hasSessionId()) {
+            throw new IllegalStateException("Virtual user sign-up failed with status " + response.getStatusCode());
+        }
+        return new VirtualUser(registration, session);
+    }
+
+    void addPayments(int count) throws JsonProcessingException {
+        for (int i = 0; i < count; i++) {
+            Response response = LoadOperation.ADD_FUNDS.execute(this);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("Seeding payments failed with status " + response.getStatusCode());
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package lemfi.model.payment;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.restassured.response.Response;
+import lemfi.helper.ApiSession;
 import lemfi.helper.PropertiesHelper;
 import lemfi.helper.RequestHelper;
 import lombok.experimental.UtilityClass;
@@ -19,6 +20,7 @@ public class PaymentRequester {
     private final static URI PAYMENT = URI.create(API_URL + "/api/add-funds");
     private final static URI GET_BALANCE = URI.create(API_URL + "/api/balance");
     private final static URI GET_PAYMENTS = URI.create(API_URL + "/api/payments");
+    private final static URI GET_PAYMENTS_WITH_RAW_RESPONSE = URI.create(API_URL + "/api/payments?include=rawResponse");
 
     public static Response createPayment(Payment payment) throws JsonProcessingException {
         log.info("Create payment");
@@ -39,4 +41,21 @@ public class PaymentRequester {
         log.info("Get payments");
         return RequestHelper.getRequest(GET_PAYMENTS);
     }
+
+    public static Response getPaymentsWithRawResponse() throws JsonProcessingException {
+        log.info("Get payments with raw response");
+        return RequestHelper.getRequest(GET_PAYMENTS_WITH_RAW_RESPONSE);
+    }
+
+    public static Response createPayment(Payment payment, ApiSession session) throws JsonProcessingException {
+        return RequestHelper.postRequest(PAYMENT, payment, session);
+    }
+
+    public static Response getBalance(ApiSession session) {
+        return RequestHelper.getRequest(GET_BALANCE, session);
+    }
+
+    public static Response getPayments(ApiSession session) {
+        return RequestHelper.getRequest(GET_PAYMENTS, session);
+    }
 }
@@ -2,6 +2,7 @@ package lemfi.model.signUp;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.restassured.response.Response;
+import lemfi.helper.ApiSession;
 import lemfi.helper.PropertiesHelper;
 import lemfi.helper.RequestHelper;
 import lombok.experimental.UtilityClass;
@@ -19,11 +20,17 @@ public class SignUpRequester {
 
     public static Response signUp(Registration registration) throws JsonProcessingException {
         log.info("Registration user");
+        ApiSession.startNew();
         return RequestHelper.postRequest(SIGN_UP, registration);
     }
 
     public static Response signUpWithoutBody() throws JsonProcessingException {
         log.info("Registration user without body");
+        ApiSession.startNew();
         return RequestHelper.postRequestWithoutBody(SIGN_UP);
     }
+
+    public static Response signUp(Registration registration, ApiSession session) throws JsonProcessingException {
+        return RequestHelper.postRequest(SIGN_UP, registration, session);
+    }
 }
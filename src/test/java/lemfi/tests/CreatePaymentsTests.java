@@ -7,21 +7,20 @@ import io.qameta.allure.*;
 import io.restassured.response.Response;
 import lemfi.dao.payments.PaymentDao;
 import lemfi.dao.payments.PaymentDto;
-import lemfi.dao.user.UserDao;
 import lemfi.helper.AllureLogAttachments;
 import lemfi.helper.ApiErrorAssertions;
-import lemfi.helper.CleanupHelper;
-import lemfi.helper.UserRegistrationStep;
+import lemfi.helper.UserFixturePool;
 import lemfi.model.payment.Amount;
 import lemfi.model.payment.Payment;
 import lemfi.model.payment.PaymentRequester;
-import lemfi.model.signUp.Registration;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
@@ -37,15 +36,13 @@ import static org.junit.jupiter.api.Assertions.*;
 @Slf4j
 @Epic("Payments API")
 @Feature("Create payment")
+@Execution(ExecutionMode.CONCURRENT)
 public class CreatePaymentsTests {
 
     @Autowired
     PaymentDao paymentDao;
 
-    @Autowired
-    UserDao userDao;
-
-    private String emailToCleanup;
+    private UserFixturePool.Lease lease;
     private Long paymentIdToCleanup;
     private Long userId;
 
@@ -53,29 +50,20 @@ public class CreatePaymentsTests {
 
     @BeforeEach
     void init() {
-        Allure.step("Register random user", () -> {
-            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
-
-            Registration registration = result.request();
-            Response registrationResponse = result.response();
+        Allure.step("Lease fresh fixture user", () -> {
+            lease = UserFixturePool.lease(UserFixturePool.Profile.FRESH);
+            userId = lease.getUserId();
 
-            emailToCleanup = registration.getEmail();
-            userId = registrationResponse.jsonPath().getLong("id");
-
-            Allure.parameter("registeredEmail", emailToCleanup);
+            Allure.parameter("registeredEmail", lease.getEmail());
             Allure.parameter("registeredUserId", userId);
 
-            assertNotNull(userId, "User id must be returned in registration response");
-            log.info("Registered user id={}, email={}", userId, emailToCleanup);
+            log.info("Leased user id={}, email={}", userId, lease.getEmail());
         });
     }
 
     @AfterEach
     void cleanup() {
-        Allure.step("Cleanup payment and user", () -> {
-            CleanupHelper.cleanupPaymentAndUser(paymentDao, paymentIdToCleanup, userDao, emailToCleanup);
-            log.info("Cleanup done. paymentId={}, email={}", paymentIdToCleanup, emailToCleanup);
-        });
+        Allure.step("Return fixture user", lease::close);
 
         // прикрепим лог (если включила пункт 4)
         AllureLogAttachments.attachTestLogIfExists();
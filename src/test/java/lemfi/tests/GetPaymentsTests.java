@@ -3,76 +3,43 @@ package lemfi.tests;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
-import lemfi.dao.payments.PaymentDao;
-import lemfi.dao.user.UserDao;
 import lemfi.helper.AllureLogAttachments;
-import lemfi.helper.CleanupHelper;
-import lemfi.helper.UserRegistrationStep;
+import lemfi.helper.UserFixturePool;
 import lemfi.model.payment.Amount;
 import lemfi.model.payment.Payment;
 import lemfi.model.payment.PaymentRequester;
-import lemfi.model.signUp.Registration;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Slf4j
 @Epic("Payments API")
 @Feature("Get payments")
+@Execution(ExecutionMode.CONCURRENT)
 public class GetPaymentsTests {
 
-    @Autowired
-    PaymentDao paymentDao;
-
-    @Autowired
-    UserDao userDao;
-
-    private String emailToCleanup;
-    private final List<Long> paymentIdsToCleanup = new ArrayList<>();
+    private UserFixturePool.Lease lease;
 
     @BeforeEach
-    void init() throws JsonProcessingException {
-        Allure.step("Register random user", () -> {
-            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
-            Registration registration = result.request();
-            emailToCleanup = registration.getEmail();
+    void init() {
+        Allure.step("Lease fresh fixture user", () -> {
+            lease = UserFixturePool.lease(UserFixturePool.Profile.FRESH);
 
-            Allure.parameter("registeredEmail", emailToCleanup);
-            log.info("Registered user: email={}", emailToCleanup);
-
-            assertNotNull(emailToCleanup, "Registered email must not be null");
-            assertFalse(emailToCleanup.isBlank(), "Registered email must not be blank");
+            Allure.parameter("registeredEmail", lease.getEmail());
+            log.info("Leased user: email={}", lease.getEmail());
         });
     }
 
     @AfterEach
     void cleanup() {
-        Allure.step("Cleanup created payments", () -> {
-            for (Long paymentId : paymentIdsToCleanup) {
-                try {
-                    CleanupHelper.cleanupPaymentAndUser(paymentDao, paymentId, userDao, null);
-                    log.info("Cleaned paymentId={}", paymentId);
-                } catch (Exception e) {
-                    log.warn("Cleanup failed for paymentId={}: {}", paymentId, e.getMessage(), e);
-                }
-            }
-            paymentIdsToCleanup.clear();
-        });
-
-        Allure.step("Cleanup user by email", () -> {
-            try {
-                CleanupHelper.cleanupPaymentAndUser(paymentDao, null, userDao, emailToCleanup);
-                log.info("Cleaned user email={}", emailToCleanup);
-            } catch (Exception e) {
-                log.warn("Cleanup failed for email={}: {}", emailToCleanup, e.getMessage(), e);
-            }
-        });
+        Allure.step("Return fixture user", lease::close);
 
         AllureLogAttachments.attachTestLogIfExists();
     }
@@ -110,15 +77,14 @@ public class GetPaymentsTests {
         Long createdId = Allure.step("Extract created payment id", () -> {
             Long id = created.response().jsonPath().getLong("id");
             assertNotNull(id, "Payment id must be returned in create payment response");
-            paymentIdsToCleanup.add(id);
 
             Allure.parameter("createdPaymentId", id);
             log.info("Created payment id={}", id);
             return id;
         });
 
-        Response getResponse = Allure.step("Call GET /payments", () -> {
-            Response r = PaymentRequester.getPayments();
+        Response getResponse = Allure.step("Call GET /payments?include=rawResponse", () -> {
+            Response r = PaymentRequester.getPaymentsWithRawResponse();
             Allure.addAttachment("GET /payments response body", "application/json", r.getBody().asPrettyString(), ".json");
             return r;
         });
@@ -159,7 +125,6 @@ public class GetPaymentsTests {
         Long id1 = Allure.step("Extract payment #1 id", () -> {
             Long id = p1.response().jsonPath().getLong("id");
             assertNotNull(id);
-            paymentIdsToCleanup.add(id);
             return id;
         });
 
@@ -167,15 +132,14 @@ public class GetPaymentsTests {
         Long id2 = Allure.step("Extract payment #2 id", () -> {
             Long id = p2.response().jsonPath().getLong("id");
             assertNotNull(id);
-            paymentIdsToCleanup.add(id);
             return id;
         });
 
         Allure.parameter("createdPaymentId1", id1);
         Allure.parameter("createdPaymentId2", id2);
 
-        Response response = Allure.step("Call GET /payments", () -> {
-            Response r = PaymentRequester.getPayments();
+        Response response = Allure.step("Call GET /payments?include=rawResponse", () -> {
+            Response r = PaymentRequester.getPaymentsWithRawResponse();
             Allure.addAttachment("GET /payments response body", "application/json", r.getBody().asPrettyString(), ".json");
             return r;
         });
@@ -214,6 +178,34 @@ public class GetPaymentsTests {
         });
     }
 
+    @Test
+    @Story("Raw response on request")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("GET /payments: rawResponse is omitted unless requested")
+    void getPaymentsShouldOmitRawResponseByDefault() throws JsonProcessingException {
+        PaymentResult created = Allure.step("Create payment (precondition)", () -> createPayment(new BigDecimal("4.00"), "EUR"));
+
+        Allure.step("Extract created payment id", () -> {
+            Long id = created.response().jsonPath().getLong("id");
+            assertNotNull(id, "Payment id must be returned in create payment response");
+        });
+
+        Response response = Allure.step("Call GET /payments", () -> {
+            Response r = PaymentRequester.getPayments();
+            Allure.addAttachment("GET /payments response body", "application/json", r.getBody().asPrettyString(), ".json");
+            return r;
+        });
+
+        Allure.step("Assert items have no rawResponse", () -> {
+            assertEquals(200, response.getStatusCode(), "GET /api/payments must succeed");
+
+            List<String> rawResponses = response.jsonPath().getList("rawResponse", String.class);
+            assertFalse(rawResponses.isEmpty(), "Payments list must not be empty");
+            assertTrue(rawResponses.stream().allMatch(Objects::isNull),
+                    "rawResponse must only be returned with include=rawResponse");
+        });
+    }
+
     @Step("Create payment: amount={amount}, currency={currency}")
     private PaymentResult createPayment(BigDecimal amount, String currency) throws JsonProcessingException {
         Amount buildAmount = Amount.builder()
@@ -0,0 +1,90 @@
+package lemfi.tests;
+
+import io.qameta.allure.*;
+import lemfi.helper.ObjectMapperHelper;
+import lemfi.load.LoadGenerator;
+import lemfi.load.LoadOperation;
+import lemfi.load.LoadScenario;
+import lemfi.load.ScenarioReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Open-loop load scenarios. Tagged {@code load} so they stay out of {@code ./gradlew test}; run them with
+ * {@code ./gradlew loadTest -Dload.rate=100 -Dload.duration=PT1M}. One JSON report per scenario is written to
+ * {@code build/load-reports}.
+ */
+@Slf4j
+@Tag("load")
+@Epic("Operations")
+@Feature("Load")
+public class LoadTests {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final Path REPORT_DIR = Path.of(System.getProperty("load.report-dir", "build/load-reports"));
+
+    private final LoadGenerator generator = new LoadGenerator();
+
+    @Test
+    @Story("Mixed traffic")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Mixed sign-up, add-funds, balance and payments traffic completes without errors")
+    void mixedTraffic() throws Exception {
+        run(scenario("mixed")
+                .operation(LoadOperation.SIGN_UP, 5)
+                .operation(LoadOperation.ADD_FUNDS, 30)
+                .operation(LoadOperation.BALANCE, 40)
+                .operation(LoadOperation.PAYMENTS, 25)
+                .build());
+    }
+
+    @Test
+    @Story("Read-heavy traffic")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Read-heavy balance and payments traffic completes without errors")
+    void readHeavyTraffic() throws Exception {
+        run(scenario("read-heavy")
+                .operation(LoadOperation.ADD_FUNDS, 5)
+                .operation(LoadOperation.BALANCE, 50)
+                .operation(LoadOperation.PAYMENTS, 45)
+                .build());
+    }
+
+    private static LoadScenario.LoadScenarioBuilder scenario(String name) {
+        return LoadScenario.builder()
+                .name(name)
+                .ratePerSecond(RATE)
+                .duration(DURATION)
+                .warmup(WARMUP)
+                .virtualUsers(USERS)
+                .maxConcurrency(CONCURRENCY);
+    }
+
+    private ScenarioReport run(LoadScenario scenario) throws Exception {
+        ScenarioReport report = Allure.step("Run scenario " + scenario.getName(), () -> generator.run(scenario));
+        Path file = report.write(REPORT_DIR);
+        log.info("Scenario {} report written to {}", scenario.getName(), file);
+        Allure.addAttachment(scenario.getName() + ".json", "application/json",
+                ObjectMapperHelper.getMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report), ".json");
+
+        assertAll(
+                () -> assertEquals(0, report.getAbandoned(), "All scheduled requests must be started"),
+                () -> assertEquals(report.getScheduled(), report.getTotal().getCount(),
+                        "All scheduled requests must complete"),
+                () -> assertEquals(0, report.getTotal().getErrors(), "Errors: " + report.getTotal().getErrorsByCause())
+        );
+        return report;
+    }
+}
@@ -0,0 +1,88 @@
+package lemfi.tests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import lemfi.helper.AllureLogAttachments;
+import lemfi.helper.UserFixturePool;
+import lemfi.model.payment.PaymentRequester;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Epic("Payments API")
+@Feature("Payment history")
+@Execution(ExecutionMode.CONCURRENT)
+public class PaymentHistoryTests {
+
+    private UserFixturePool.Lease lease;
+
+    @BeforeEach
+    void init() {
+        Allure.step("Lease fixture user with history", () -> {
+            lease = UserFixturePool.lease(UserFixturePool.Profile.WITH_HISTORY);
+
+            Allure.parameter("registeredEmail", lease.getEmail());
+            log.info("Leased user: email={}", lease.getEmail());
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        Allure.step("Return fixture user", lease::close);
+
+        AllureLogAttachments.attachTestLogIfExists();
+    }
+
+    @Test
+    @Story("Balance of a history")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("GET /balance: equals the sum of the user's payment history")
+    void balanceShouldEqualPaymentHistory() throws JsonProcessingException {
+        Response paymentsResponse = Allure.step("Call GET /payments", () -> {
+            Response r = PaymentRequester.getPayments();
+            Allure.addAttachment("GET /payments response body", "application/json", r.getBody().asPrettyString(), ".json");
+            return r;
+        });
+
+        BigDecimal paid = Allure.step("Assert the history is listed", () -> {
+            assertEquals(200, paymentsResponse.getStatusCode(), "GET /api/payments must succeed");
+
+            List<String> amounts = paymentsResponse.jsonPath().getList("amount", String.class);
+            assertEquals(Integer.getInteger("fixtures.payments", 10), amounts.size(),
+                    "Every payment of the history must be listed");
+            assertTrue(paymentsResponse.jsonPath().getList("currency", String.class).stream().allMatch("EUR"::equals),
+                    "History payments must be in EUR");
+
+            Allure.parameter("paymentsCount", amounts.size());
+            return amounts.stream().map(BigDecimal::new).reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+
+        Response balanceResponse = Allure.step("Call GET /balance", () -> {
+            Response r = PaymentRequester.getBalance();
+            Allure.addAttachment("GET /balance response body", "application/json", r.getBody().asPrettyString(), ".json");
+            return r;
+        });
+
+        Allure.step("Assert balance equals the history total", () -> {
+            assertEquals(200, balanceResponse.getStatusCode(), "Get balance must succeed");
+
+            BigDecimal actualBalance = new BigDecimal(balanceResponse.jsonPath().getString("balances.EUR"));
+            Allure.parameter("expectedBalance", paid);
+            Allure.parameter("actualBalance", actualBalance);
+
+            assertEquals(0, paid.compareTo(actualBalance), "Balance must match the payment history total");
+            log.info("Balance check: expected={}, actual={}", paid, actualBalance);
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package lemfi.tests;
+
+import io.qameta.allure.*;
+import lemfi.load.LoadGenerator;
+import lemfi.load.LoadOperation;
+import lemfi.load.LoadScenario;
+import lemfi.load.PerformanceBaseline;
+import lemfi.load.RegressionGate;
+import lemfi.load.RegressionReport;
+import lemfi.load.ScenarioReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Fixed scenarios whose p50/p99 and throughput are compared against the baselines in
+ * {@code src/test/resources/performance-baselines}. Run with {@code ./gradlew performanceTest}; re-record the
+ * baselines with {@code -Dperf.update-baseline=true} after an intended change and commit the JSON files.
+ */
+@Slf4j
+@Tag("performance")
+@Epic("Operations")
+@Feature("Performance regression")
+public class PerformanceRegressionTests {
+
+    private static final Path BASELINE_DIR = Path.of(System.getProperty("perf.baseline-dir",
+            "src/test/resources/performance-baselines"));
+    private static final Path REPORT_DIR = Path.of(System.getProperty("perf.report-dir", "build/perf-reports"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("perf.update-baseline");
+
+    private final LoadGenerator generator = new LoadGenerator();
+    private final RegressionGate gate = RegressionGate.fromSystemProperties();
+
+    @Test
+    @Story("POST /api/add-funds")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Add funds latency and throughput stay within tolerance of the baseline")
+    void addFunds() throws Exception {
+        check(scenario("add-funds").operation(LoadOperation.ADD_FUNDS, 1).build());
+    }
+
+    @Test
+    @Story("GET /api/payments")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Payments latency and throughput stay within tolerance of the baseline")
+    void payments() throws Exception {
+        check(scenario("payments").paymentsPerUser(20).operation(LoadOperation.PAYMENTS, 1).build());
+    }
+
+    @Test
+    @Story("GET /api/balance")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Balance latency and throughput stay within tolerance of the baseline")
+    void balance() throws Exception {
+        check(scenario("balance").paymentsPerUser(5).operation(LoadOperation.BALANCE, 1).build());
+    }
+
+    // Fixed on purpose: a baseline is only comparable with a run of exactly the same shape.
+    private static LoadScenario.LoadScenarioBuilder scenario(String name) {
+        return LoadScenario.builder()
+                .name(name)
+                .ratePerSecond(20)
+                .duration(Duration.ofSeconds(20))
+                .warmup(Duration.ofSeconds(5))
+                .virtualUsers(10)
+                .maxConcurrency(32);
+    }
+
+    private void check(LoadScenario scenario) throws Exception {
+        ScenarioReport report = Allure.step("Run scenario " + scenario.getName(), () -> generator.run(scenario));
+        report.write(REPORT_DIR);
+        assertEquals(0, report.getTotal().getErrors(),
+                "Latency of failing requests is meaningless: " + report.getTotal().getErrorsByCause());
+
+        PerformanceBaseline current = PerformanceBaseline.of(report);
+        if (UPDATE_BASELINE) {
+            log.info("Baseline for {} recorded to {}", scenario.getName(), current.write(BASELINE_DIR));
+            return;
+        }
+        PerformanceBaseline baseline = PerformanceBaseline.read(BASELINE_DIR, scenario.getName())
+                .orElseThrow(() -> new AssertionError("No baseline for " + scenario.getName() + " in " + BASELINE_DIR
+                        + "; record one with -Dperf.update-baseline=true"));
+
+        RegressionReport diff = gate.compare(baseline, current);
+        Path markdown = diff.write(REPORT_DIR);
+        log.info("{} (diff in {})", diff.summary(), markdown);
+        Allure.addAttachment(scenario.getName() + "-diff.md", "text/markdown", diff.toMarkdown(), ".md");
+
+        assertFalse(diff.isFailed(), diff.summary());
+    }
+}
@@ -7,6 +7,7 @@ import lemfi.dao.user.User;
 import lemfi.dao.user.UserDao;
 import lemfi.helper.AllureLogAttachments;
 import lemfi.helper.ApiErrorAssertions;
+import lemfi.helper.CleanupHelper;
 import lemfi.model.signUp.Registration;
 import lemfi.model.signUp.SignUpRequester;
 import lombok.SneakyThrows;
@@ -14,13 +15,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,26 +28,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @Slf4j
 @Epic("Auth API")
 @Feature("User registration")
+@Isolated
 public class RegistrationTests {
 
     @Autowired
     UserDao userDao;
 
-    private final List<String> emailsToCleanup = new ArrayList<>();
-
     @AfterEach
     void cleanup() {
-        Allure.step("Cleanup users created in tests", () -> {
-            for (String email : emailsToCleanup) {
-                try {
-                    log.info("Cleanup user with email: {}", email);
-                    userDao.deleteByEmail(email);
-                } catch (Exception e) {
-                    log.warn("Cleanup failed for email={}: {}", email, e.getMessage(), e);
-                }
-            }
-            emailsToCleanup.clear();
-        });
+        Allure.step("Restore database snapshot", CleanupHelper::restoreDatabase);
 
         AllureLogAttachments.attachTestLogIfExists();
     }
@@ -59,7 +48,6 @@ public class RegistrationTests {
     void registration() throws JsonProcessingException {
         Registration registration = Allure.step("Prepare random registration payload", () -> {
             Registration r = Registration.ofRandom();
-            emailsToCleanup.add(r.getEmail());
 
             Allure.parameter("registeredEmail", r.getEmail());
             log.info("Check registration user. Email: {}", r.getEmail());
@@ -103,7 +91,6 @@ public class RegistrationTests {
     void registrationUserAlreadyExist() throws JsonProcessingException {
         Registration registration = Allure.step("Prepare random registration payload", () -> {
             Registration r = Registration.ofRandom();
-            emailsToCleanup.add(r.getEmail());
             Allure.parameter("duplicateEmail", r.getEmail());
             return r;
         });
@@ -0,0 +1,84 @@
+package lemfi.tests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import lemfi.helper.AllureLogAttachments;
+import lemfi.helper.CleanupHelper;
+import lemfi.helper.UserRegistrationStep;
+import lemfi.model.payment.Payment;
+import lemfi.model.payment.PaymentRequester;
+import lemfi.model.personalDataUpdate.PersonalData;
+import lemfi.model.personalDataUpdate.PersonalDataRequester;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static lemfi.helper.SqlStatementAssertions.assertWithinStatementBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Epic("Operations")
+@Feature("SQL statement budget")
+@Isolated
+public class SqlStatementBudgetTests {
+
+    private static final int PAYMENTS = 10;
+
+    private String emailToCleanup;
+
+    @BeforeEach
+    void init() throws JsonProcessingException {
+        Response signUp = Allure.step("Register random user", () -> {
+            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
+            emailToCleanup = result.request().getEmail();
+            return result.response();
+        });
+
+        Allure.step("Assert sign-up is within budget", () -> assertWithinStatementBudget(signUp));
+    }
+
+    @AfterEach
+    void cleanup() {
+        Allure.step("Restore database snapshot", CleanupHelper::restoreDatabase);
+
+        AllureLogAttachments.attachTestLogIfExists();
+    }
+
+    @Test
+    @Story("Budget per endpoint")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Add funds, payments, balance and personal data stay within their SQL statement budgets")
+    void endpointsShouldStayWithinBudget() {
+        Allure.step("POST /add-funds", () -> assertWithinStatementBudget(PaymentRequester.createPayment(Payment.ofRandom())));
+        Allure.step("GET /payments", () -> assertWithinStatementBudget(PaymentRequester.getPayments()));
+        Allure.step("GET /payments?include=rawResponse",
+                () -> assertWithinStatementBudget(PaymentRequester.getPaymentsWithRawResponse()));
+        Allure.step("GET /balance", () -> assertWithinStatementBudget(PaymentRequester.getBalance()));
+        Allure.step("POST /personal-data",
+                () -> assertWithinStatementBudget(PersonalDataRequester.updatePersonalData(PersonalData.ofRandom())));
+    }
+
+    @Test
+    @Story("N+1 guard")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("GET /payments: statement count does not grow with the number of payments")
+    void getPaymentsShouldNotIssueStatementsPerPayment() {
+        Allure.step("Create first payment", () -> PaymentRequester.createPayment(Payment.ofRandom()));
+        int forOne = Allure.step("GET /payments with one payment",
+                () -> assertWithinStatementBudget(PaymentRequester.getPaymentsWithRawResponse()));
+
+        Allure.step("Create " + (PAYMENTS - 1) + " more payments", () -> {
+            for (int i = 1; i < PAYMENTS; i++) {
+                PaymentRequester.createPayment(Payment.ofRandom());
+            }
+        });
+        int forMany = Allure.step("GET /payments with " + PAYMENTS + " payments",
+                () -> assertWithinStatementBudget(PaymentRequester.getPaymentsWithRawResponse()));
+
+        assertEquals(forOne, forMany, "GET /payments must not issue statements per payment");
+    }
+}
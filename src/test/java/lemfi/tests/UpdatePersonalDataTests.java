@@ -7,16 +7,17 @@ import lemfi.dao.user.User;
 import lemfi.dao.user.UserDao;
 import lemfi.helper.AllureLogAttachments;
 import lemfi.helper.ApiErrorAssertions;
-import lemfi.helper.UserRegistrationStep;
+import lemfi.helper.UserFixturePool;
 import lemfi.model.personalDataUpdate.PersonalData;
 import lemfi.model.personalDataUpdate.PersonalDataRequester;
-import lemfi.model.signUp.Registration;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -29,41 +30,27 @@ import static org.junit.jupiter.api.Assertions.*;
 @Slf4j
 @Epic("User profile API")
 @Feature("Update personal data")
+@Execution(ExecutionMode.CONCURRENT)
 public class UpdatePersonalDataTests {
 
     @Autowired
     UserDao userDao;
 
-    private String emailToCleanup;
-    private Registration registration;
+    private UserFixturePool.Lease lease;
 
     @BeforeEach
-    void init() throws JsonProcessingException {
-        Allure.step("Register random user", () -> {
-            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
-            registration = result.request();
-            emailToCleanup = registration.getEmail();
+    void init() {
+        Allure.step("Lease fresh fixture user", () -> {
+            lease = UserFixturePool.lease(UserFixturePool.Profile.FRESH);
 
-            Allure.parameter("registeredEmail", emailToCleanup);
-            log.info("Registered user email={}", emailToCleanup);
-
-            assertNotNull(emailToCleanup, "Registered email must not be null");
-            assertFalse(emailToCleanup.isBlank(), "Registered email must not be blank");
+            Allure.parameter("registeredEmail", lease.getEmail());
+            log.info("Leased user email={}", lease.getEmail());
         });
     }
 
     @AfterEach
     void cleanup() {
-        Allure.step("Cleanup user by email", () -> {
-            if (emailToCleanup != null && !emailToCleanup.isBlank()) {
-                try {
-                    log.info("Cleanup user with email={}", emailToCleanup);
-                    userDao.deleteByEmail(emailToCleanup);
-                } catch (Exception e) {
-                    log.warn("Cleanup failed for email={}: {}", emailToCleanup, e.getMessage(), e);
-                }
-            }
-        });
+        Allure.step("Return fixture user", lease::close);
 
         AllureLogAttachments.attachTestLogIfExists();
     }
@@ -94,7 +81,7 @@ public class UpdatePersonalDataTests {
             assertPersonalDataResponse(addPersonalDataResponse, personalData);
         });
 
-        User user = Allure.step("Read user from DB after first update", () -> userDao.selectUser(registration.getEmail()));
+        User user = Allure.step("Read user from DB after first update", () -> userDao.selectUser(lease.getEmail()));
 
         Allure.step("Assert first update is persisted in DB", () -> {
             assertPersonalDataInDb(user, personalData);
@@ -120,7 +107,7 @@ public class UpdatePersonalDataTests {
             assertPersonalDataResponse(updatePersonalDataResponse, updatePersonalData);
         });
 
-        User updatedUser = Allure.step("Read user from DB after second update", () -> userDao.selectUser(registration.getEmail()));
+        User updatedUser = Allure.step("Read user from DB after second update", () -> userDao.selectUser(lease.getEmail()));
 
         Allure.step("Assert second update is persisted in DB", () -> {
             assertPersonalDataInDb(updatedUser, updatePersonalData);
@@ -215,7 +202,7 @@ public class UpdatePersonalDataTests {
     private void assertPersonalDataInDb(User user, PersonalData expected) {
         assertAll(
                 () -> assertNotNull(user, "User must exist in DB"),
-                () -> assertEquals(registration.getEmail(), user.getEmail(), "Email in DB must match registered user email"),
+                () -> assertEquals(lease.getEmail(), user.getEmail(), "Email in DB must match registered user email"),
                 () -> assertEquals(expected.getFirstName(), user.getFirstName(), "First name in DB must match personal data request"),
                 () -> assertEquals(expected.getSurname(), user.getSurname(), "Surname in DB must match personal data request"),
                 () -> assertEquals(expected.getPersonalId(), user.getPersonalId(), "Personal ID in DB must match personal data request")
@@ -3,87 +3,48 @@ package lemfi.tests;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
-import lemfi.dao.payments.PaymentDao;
-import lemfi.dao.user.UserDao;
 import lemfi.helper.AllureLogAttachments;
-import lemfi.helper.CleanupHelper;
-import lemfi.helper.UserRegistrationStep;
+import lemfi.helper.UserFixturePool;
 import lemfi.model.payment.Amount;
 import lemfi.model.payment.Payment;
 import lemfi.model.payment.PaymentRequester;
-import lemfi.model.signUp.Registration;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Slf4j
 @Epic("Payments API")
 @Feature("Verify balance")
+@Execution(ExecutionMode.CONCURRENT)
 public class VerifyBalanceTests {
 
-    @Autowired
-    PaymentDao paymentDao;
-
-    @Autowired
-    UserDao userDao;
-
-    private String emailToCleanup;
+    private UserFixturePool.Lease lease;
     private Long userId;
 
-    private final List<Long> paymentIdsToCleanup = new ArrayList<>();
-
     @BeforeEach
-    void init() throws JsonProcessingException {
-        Allure.step("Register random user", () -> {
-            UserRegistrationStep.RegistrationResult result = UserRegistrationStep.registerRandomUser();
-
-            Registration registration = result.request();
-            Response registrationResponse = result.response();
-
-            emailToCleanup = registration.getEmail();
-            userId = registrationResponse.jsonPath().getLong("id");
+    void init() {
+        Allure.step("Lease fresh fixture user", () -> {
+            lease = UserFixturePool.lease(UserFixturePool.Profile.FRESH);
+            userId = lease.getUserId();
 
-            Allure.parameter("registeredEmail", emailToCleanup);
+            Allure.parameter("registeredEmail", lease.getEmail());
             Allure.parameter("registeredUserId", userId);
 
-            log.info("Registered user id={}, email={}", userId, emailToCleanup);
-
-            assertNotNull(userId, "User id must be returned in registration response");
+            log.info("Leased user id={}, email={}", userId, lease.getEmail());
         });
     }
 
     @AfterEach
     void cleanup() {
-        Allure.step("Cleanup created payments", () -> {
-            for (Long paymentId : paymentIdsToCleanup) {
-                try {
-                    CleanupHelper.cleanupPaymentAndUser(paymentDao, paymentId, userDao, null);
-                    log.info("Cleaned paymentId={}", paymentId);
-                } catch (Exception e) {
-                    log.warn("Cleanup failed for paymentId={}: {}", paymentId, e.getMessage(), e);
-                }
-            }
-            paymentIdsToCleanup.clear();
-        });
-
-        Allure.step("Cleanup user by email", () -> {
-            try {
-                CleanupHelper.cleanupPaymentAndUser(paymentDao, null, userDao, emailToCleanup);
-                log.info("Cleaned user email={}", emailToCleanup);
-            } catch (Exception e) {
-                log.warn("Cleanup failed for email={}: {}", emailToCleanup, e.getMessage(), e);
-            }
-        });
-
+        Allure.step("Return fixture user", lease::close);
 
         AllureLogAttachments.attachTestLogIfExists();
     }
@@ -102,7 +63,8 @@ public class VerifyBalanceTests {
         Allure.step("Assert status code and balance=0", () -> {
             assertEquals(200, getBalanceResponse.getStatusCode(), "Get balance must succeed");
 
-            BigDecimal actualBalance = new BigDecimal(getBalanceResponse.jsonPath().getString("balance"));
+            String balance = getBalanceResponse.jsonPath().getString("balances.EUR");
+            BigDecimal actualBalance = balance == null ? BigDecimal.ZERO : new BigDecimal(balance);
             Allure.parameter("actualBalance", actualBalance);
 
             assertEquals(0, BigDecimal.ZERO.compareTo(actualBalance), "Balance must be 0 for user without payments");
@@ -122,7 +84,6 @@ public class VerifyBalanceTests {
         Long paymentId = Allure.step("Extract created payment id", () -> {
             Long id = paymentResult.response().jsonPath().getLong("id");
             assertNotNull(id, "Payment id must be returned in create payment response");
-            paymentIdsToCleanup.add(id);
 
             Allure.parameter("paymentId", id);
             log.info("Created paymentId={}", id);
@@ -138,7 +99,7 @@ public class VerifyBalanceTests {
         Allure.step("Assert balance equals created payment amount", () -> {
             assertEquals(200, getBalanceResponse.getStatusCode(), "Get balance must succeed");
 
-            BigDecimal actualBalance = new BigDecimal(getBalanceResponse.jsonPath().getString("balance"));
+            BigDecimal actualBalance = new BigDecimal(getBalanceResponse.jsonPath().getString("balances.EUR"));
             BigDecimal expectedBalance = paymentResult.payment().getAmount().getAmount();
 
             Allure.parameter("expectedBalance", expectedBalance);
@@ -159,7 +120,6 @@ public class VerifyBalanceTests {
         Long p1Id = Allure.step("Extract payment #1 id", () -> {
             Long id = p1.response().jsonPath().getLong("id");
             assertNotNull(id, "Payment id must be returned in create payment response");
-            paymentIdsToCleanup.add(id);
             Allure.parameter("paymentId1", id);
             return id;
         });
@@ -168,7 +128,6 @@ public class VerifyBalanceTests {
         Long p2Id = Allure.step("Extract payment #2 id", () -> {
             Long id = p2.response().jsonPath().getLong("id");
             assertNotNull(id, "Payment id must be returned in create payment response");
-            paymentIdsToCleanup.add(id);
             Allure.parameter("paymentId2", id);
             return id;
         });
@@ -182,7 +141,7 @@ public class VerifyBalanceTests {
         Allure.step("Assert balance equals sum of two payments", () -> {
             assertEquals(200, getBalanceResponse.getStatusCode(), "Get balance must succeed");
 
-            BigDecimal actualBalance = new BigDecimal(getBalanceResponse.jsonPath().getString("balance"));
+            BigDecimal actualBalance = new BigDecimal(getBalanceResponse.jsonPath().getString("balances.EUR"));
 
             BigDecimal expectedBalance = p1.payment().getAmount().getAmount()
                     .add(p2.payment().getAmount().getAmount());